@@ -0,0 +1,86 @@
+package devnsko.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import devnsko.dto.MediaResponse;
+import devnsko.dto.PostBlockRequest;
+import devnsko.dto.PostRequst;
+import devnsko.dto.block.BlockData;
+import devnsko.dto.block.CodeBlockData;
+import devnsko.dto.block.ImageBlockData;
+import devnsko.dto.block.QuoteBlockData;
+import devnsko.dto.block.TextBlockData;
+import devnsko.model.PostBlockModel;
+import devnsko.model.PostModel;
+import devnsko.service.BlockDataCodec;
+import devnsko.service.OrderKeys;
+import devnsko.type.PostBlockType;
+
+/** Posts of a given size with a realistic mix of block types, shared by the post benchmarks. */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /** Configured like the application's mapper (Boot's builder defaults). */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static PostRequst request(int blockCount) {
+        ArrayList<PostBlockRequest> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            PostBlockType type = typeAt(i);
+            blocks.add(new PostBlockRequest(type, i, dataAt(type, i)));
+        }
+        return new PostRequst("Benchmark post with " + blockCount + " blocks", blocks);
+    }
+
+    /** A post as loaded from the database: ids and version assigned, data already JSON. */
+    static PostModel post(int blockCount, BlockDataCodec codec) {
+        PostModel post = new PostModel();
+        post.setId(1);
+        post.setTitle("Benchmark post with " + blockCount + " blocks");
+        post.setVersion(3L);
+        List<PostBlockModel> blocks = new ArrayList<>(blockCount);
+        List<String> orderKeys = OrderKeys.spread(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            PostBlockType type = typeAt(i);
+            PostBlockModel block = new PostBlockModel();
+            block.setId(i + 1);
+            block.setType(type);
+            block.setOrderKey(orderKeys.get(i));
+            block.setData(codec.write(type, dataAt(type, i)));
+            block.setPost(post);
+            blocks.add(block);
+        }
+        post.setBlocks(blocks);
+        return post;
+    }
+
+    // Mostly prose, with the occasional code sample, image and quote
+    private static PostBlockType typeAt(int i) {
+        return switch (i % 6) {
+            case 2 -> PostBlockType.CODE;
+            case 4 -> PostBlockType.IMAGE;
+            case 5 -> PostBlockType.QUOTE;
+            default -> PostBlockType.TEXT;
+        };
+    }
+
+    private static BlockData dataAt(PostBlockType type, int i) {
+        return switch (type) {
+            case CODE -> new CodeBlockData("java", "for (int i = 0; i < " + i + "; i++) {\n    System.out.println(i);\n}");
+            case IMAGE -> new ImageBlockData(MediaResponse.url(new UUID(0, i + 1).toString()), "Figure " + i,
+                "A caption for figure " + i, i + 1);
+            case QUOTE -> new QuoteBlockData("Premature optimization is the root of all evil.", "Donald Knuth");
+            default -> new TextBlockData(("Paragraph " + i + " of the post, long enough to look like real prose. ").repeat(6));
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package devnsko.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import devnsko.model.AppUserRole;
+import devnsko.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token issue and verification as done on sign-in and by {@code JwtTokenFilter} on every
+ * authenticated request. {@code cached} answers repeat tokens from the verified-token cache,
+ * {@code uncached} has that cache sized to zero so every call computes the HMAC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenBenchmark {
+
+  private JwtTokenProvider cached;
+  private JwtTokenProvider uncached;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    cached = provider(10_000);
+    uncached = provider(0);
+    token = cached.createToken("benchmark-user", List.of(AppUserRole.ROLE_CLIENT));
+  }
+
+  static JwtTokenProvider provider(long verifiedCacheMaximumSize) {
+    JwtTokenProvider provider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(provider, "secretKey", "secret-key");
+    ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+    ReflectionTestUtils.setField(provider, "verifiedCacheMaximumSize", verifiedCacheMaximumSize);
+    ReflectionTestUtils.setField(provider, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.invokeMethod(provider, "init");
+    return provider;
+  }
+
+  @Benchmark
+  public String createToken() {
+    return cached.createToken("benchmark-user", List.of(AppUserRole.ROLE_CLIENT));
+  }
+
+  @Benchmark
+  public boolean validateTokenCached() {
+    return cached.validateToken(token);
+  }
+
+  @Benchmark
+  public boolean validateTokenUncached() {
+    return uncached.validateToken(token);
+  }
+
+  @Benchmark
+  public String getUsernameCached() {
+    return cached.getUsername(token);
+  }
+
+  @Benchmark
+  public String getUsernameUncached() {
+    return uncached.getUsername(token);
+  }
+
+}
@@ -0,0 +1,86 @@
+package devnsko.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import devnsko.dto.PostResponse;
+import devnsko.response.ServerResponse;
+import devnsko.service.BlockDataCodec;
+
+/**
+ * Cost of compressing a {@code GET /posts/{id}} body per request (Tomcat's default level) versus
+ * once per version at the highest level, as {@code PostRenderService} does. Sample mode reports
+ * p99; the bytes on the wire for each variant are the {@code identityBytes} and {@code gzipBytes}
+ * secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostCompressionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int blocks;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        PostResponse post = PostResponse.from(Fixtures.post(blocks, new BlockDataCodec(objectMapper)));
+        body = objectMapper.writeValueAsBytes(ServerResponse.ok(Map.of("post", post)));
+    }
+
+    /** Body size before and after compression, reported next to each variant's timings. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long identityBytes;
+        public long gzipBytes;
+    }
+
+    @Benchmark
+    public byte[] gzipDefault(WireSize size) throws IOException {
+        return measure(Deflater.DEFAULT_COMPRESSION, size);
+    }
+
+    /** Paid once per post version, not per request. */
+    @Benchmark
+    public byte[] gzipBest(WireSize size) throws IOException {
+        return measure(Deflater.BEST_COMPRESSION, size);
+    }
+
+    private byte[] measure(int level, WireSize size) throws IOException {
+        byte[] compressed = gzip(body, level);
+        size.identityBytes = body.length;
+        size.gzipBytes = compressed.length;
+        return compressed;
+    }
+
+    private static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package devnsko.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import devnsko.dto.PostRequst;
+import devnsko.model.PostBlockModel;
+import devnsko.model.PostModel;
+import devnsko.service.BlockDataCodec;
+import devnsko.service.PostService;
+import devnsko.type.PostBlockType;
+
+/**
+ * The CPU side of {@code POST /posts}: reading the request body and mapping its blocks to
+ * entities, which serializes every block payload to JSON. Persistence is not included.
+ * {@code legacy*} reproduce the mapping before typed payloads: block data read as a
+ * {@code Map}, then written with a new {@link ObjectMapper} per block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostMappingBenchmark {
+
+    @Param({"1", "10", "50", "100", "1000"})
+    private int blocks;
+
+    private PostService postService;
+    private ObjectReader requestReader;
+    private byte[] requestBody;
+    private PostRequst request;
+    private ObjectReader legacyRequestReader;
+    private LegacyPostRequest legacyRequest;
+
+    /** The request DTOs as they were, with untyped block data. */
+    public static class LegacyPostRequest {
+        public String title;
+        public List<LegacyBlockRequest> blocks;
+    }
+
+    public static class LegacyBlockRequest {
+        public PostBlockType type;
+        public int orderIndex;
+        public Map<String, Object> data;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        var objectMapper = Fixtures.objectMapper();
+        // toModel only needs the codec; repository, search engine, events and media stay unused
+        postService = new PostService(null, new BlockDataCodec(objectMapper), null, null, null);
+        requestReader = objectMapper.readerFor(PostRequst.class);
+        request = Fixtures.request(blocks);
+        requestBody = objectMapper.writeValueAsBytes(request);
+        legacyRequestReader = objectMapper.readerFor(LegacyPostRequest.class);
+        legacyRequest = legacyRequestReader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public PostRequst readRequest() throws Exception {
+        return requestReader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public PostModel toModel() {
+        return postService.toModel(request);
+    }
+
+    @Benchmark
+    public PostModel readAndMap() throws Exception {
+        return postService.toModel(requestReader.readValue(requestBody));
+    }
+
+    @Benchmark
+    public PostModel legacyToModel() throws Exception {
+        return legacyToModel(legacyRequest);
+    }
+
+    @Benchmark
+    public PostModel legacyReadAndMap() throws Exception {
+        return legacyToModel(legacyRequestReader.readValue(requestBody));
+    }
+
+    private static PostModel legacyToModel(LegacyPostRequest request) throws Exception {
+        PostModel post = new PostModel();
+        post.setTitle(request.title);
+        List<PostBlockModel> blocks = new ArrayList<>();
+        for (LegacyBlockRequest blockRequest : request.blocks) {
+            PostBlockModel block = new PostBlockModel();
+            block.setData(new ObjectMapper().writeValueAsString(blockRequest.data));
+            block.setType(blockRequest.type);
+            block.setPost(post);
+            blocks.add(block);
+        }
+        post.setBlocks(blocks);
+        return post;
+    }
+}
@@ -0,0 +1,69 @@
+package devnsko.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import devnsko.dto.PostResponse;
+import devnsko.model.PostModel;
+import devnsko.response.ServerResponse;
+import devnsko.service.BlockDataCodec;
+
+/**
+ * Rendering a loaded post graph into the {@code GET /posts/{id}} body, for posts of growing
+ * size. {@code serializeEntity} writes the {@link PostModel} itself, as the endpoint did before
+ * it returned {@link PostResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostRenderBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int blocks;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+    private PostModel post;
+    private PostResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        responseWriter = objectMapper.writerFor(ServerResponse.class);
+        post = Fixtures.post(blocks, new BlockDataCodec(objectMapper));
+        response = PostResponse.from(post);
+    }
+
+    @Benchmark
+    public PostResponse toResponse() {
+        return PostResponse.from(post);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(ServerResponse.ok(Map.of("post", response)));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return responseWriter.writeValueAsBytes(ServerResponse.ok(Map.of("post", PostResponse.from(post))));
+    }
+
+    @Benchmark
+    public byte[] serializeEntity() throws Exception {
+        return objectMapper.writeValueAsBytes(ServerResponse.ok(Map.of("post", post)));
+    }
+
+}
@@ -0,0 +1,115 @@
+package devnsko.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import devnsko.JwtAuthServiceApp;
+import devnsko.model.AppUserRole;
+import devnsko.model.PostModel;
+import devnsko.repository.PostRepository;
+import devnsko.security.JwtTokenProvider;
+import devnsko.service.PostService;
+
+/**
+ * {@code GET /posts/{id}} under concurrent load, with Tomcat on platform threads (the default
+ * pool of 200) or on virtual threads ({@code spring.threads.virtual.enabled}, Java 21 runtime
+ * only). Each operation sends {@code concurrency} requests at once over separate connections and
+ * waits for all of them. The application runs in-process on H2 with the post caches expiring at
+ * once, so every request borrows one of the pool's connections. The fork runs with
+ * {@code -Djdk.tracePinnedThreads=full}: a virtual thread that blocks while pinned to its carrier
+ * prints its stack into the benchmark output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Djdk.tracePinnedThreads=full")
+public class RequestConcurrencyBenchmark {
+
+    private static final int POSTS = 100;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"50", "500"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<HttpRequest> requests;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, this is " + Runtime.version());
+        }
+        // Arguments rather than builder properties, which application.yml would override
+        context = new SpringApplicationBuilder(JwtAuthServiceApp.class).run(
+            "--spring.threads.virtual.enabled=" + virtual,
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--search.engine=memory",
+            "--media.local.root=target/benchmark-media",
+            // Every read goes to the database rather than to the post caches
+            "--posts.cache.expire-after-write=0s",
+            "--logging.level.root=WARN");
+
+        PostService postService = context.getBean(PostService.class);
+        List<PostModel> posts = context.getBean(PostRepository.class).saveAll(
+            IntStream.range(0, POSTS).mapToObj(i -> postService.toModel(Fixtures.request(10))).toList());
+        // The "client" user is created by JwtAuthServiceApp on startup
+        String token = context.getBean(JwtTokenProvider.class).createToken("client", List.of(AppUserRole.ROLE_CLIENT));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        requests = posts.stream()
+            .map(post -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts/" + post.getId()))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build())
+            .toList();
+        // HTTP/1.1, so requests in flight at once each hold their own server connection
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("GET " + response.uri() + " answered " + response.statusCode());
+                    }
+                });
+        }
+        CompletableFuture.allOf(responses).join();
+        return concurrency;
+    }
+}
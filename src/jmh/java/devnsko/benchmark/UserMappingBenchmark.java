@@ -0,0 +1,136 @@
+package devnsko.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import devnsko.dto.UserDataDTO;
+import devnsko.dto.UserResponseDTO;
+import devnsko.model.AppUser;
+import devnsko.model.AppUserRole;
+
+/**
+ * The DTO conversions {@code UserController} performs on signup, search and whoami, using the
+ * hand-written mappers next to the reflective {@link ModelMapper} they replaced. The
+ * {@code firstUse} benchmarks time a single conversion in a fresh JVM, which is where
+ * ModelMapper pays for building its type maps; each fork gives one sample, so run them with
+ * {@code -Djmh.forks=10} or more. ModelMapper cannot instantiate records, so its side maps into
+ * {@link LegacyUserResponse}, the mutable shape {@link UserResponseDTO} used to have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMappingBenchmark {
+
+  private ModelMapper modelMapper;
+  private UserDataDTO signup;
+  private AppUser user;
+
+  @Setup
+  public void setUp() {
+    modelMapper = new ModelMapper();
+
+    signup = new UserDataDTO();
+    signup.setUsername("benchmark-user");
+    signup.setEmail("benchmark@email.com");
+    signup.setPassword("benchmark-password");
+    signup.setAppUserRoles(List.of(AppUserRole.ROLE_CLIENT));
+
+    user = new AppUser();
+    user.setId(42);
+    user.setUsername("benchmark-user");
+    user.setEmail("benchmark@email.com");
+    user.setPassword("$2a$12$abcdefghijklmnopqrstuv");
+    user.setAppUserRoles(new ArrayList<>(List.of(AppUserRole.ROLE_CLIENT)));
+  }
+
+  @Benchmark
+  public AppUser signupToUser() {
+    return signup.toAppUser();
+  }
+
+  @Benchmark
+  public UserResponseDTO userToResponse() {
+    return UserResponseDTO.from(user);
+  }
+
+  @Benchmark
+  public AppUser signupToUserModelMapper() {
+    return modelMapper.map(signup, AppUser.class);
+  }
+
+  @Benchmark
+  public LegacyUserResponse userToResponseModelMapper() {
+    return modelMapper.map(user, LegacyUserResponse.class);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public UserResponseDTO firstUse() {
+    return UserResponseDTO.from(user);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public LegacyUserResponse firstUseModelMapper() {
+    return new ModelMapper().map(user, LegacyUserResponse.class);
+  }
+
+  public static class LegacyUserResponse {
+
+    private Integer id;
+    private String username;
+    private String email;
+    private List<AppUserRole> appUserRoles;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public List<AppUserRole> getAppUserRoles() {
+      return appUserRoles;
+    }
+
+    public void setAppUserRoles(List<AppUserRole> appUserRoles) {
+      this.appUserRoles = appUserRoles;
+    }
+  }
+
+}
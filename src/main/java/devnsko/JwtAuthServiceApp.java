@@ -1,12 +1,11 @@
 package devnsko;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 
 import devnsko.model.AppUser;
 import devnsko.model.AppUserRole;
@@ -15,6 +14,7 @@ import devnsko.service.UserService;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @SpringBootApplication
 @RequiredArgsConstructor
 public class JwtAuthServiceApp implements CommandLineRunner {
@@ -25,11 +25,6 @@ public class JwtAuthServiceApp implements CommandLineRunner {
     SpringApplication.run(JwtAuthServiceApp.class, args);
   }
 
-  @Bean
-  public ModelMapper modelMapper() {
-    return new ModelMapper();
-  }
-
   @Override
   public void run(String... params) {
     try {
@@ -42,8 +37,7 @@ public class JwtAuthServiceApp implements CommandLineRunner {
       
       userService.signup(admin);
     } catch (Exception e) {
-      System.out.println("[Error] Failed to create admin");
-      e.printStackTrace();
+      log.error("Failed to create admin", e);
     }
 
     try {
@@ -55,8 +49,7 @@ public class JwtAuthServiceApp implements CommandLineRunner {
 
       userService.signup(client);
     } catch (Exception e) {
-      System.out.println("[Error] Failed to create client");
-      e.printStackTrace();
+      log.error("Failed to create client", e);
     }
   }
 
@@ -0,0 +1,13 @@
+package devnsko.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} listeners; they run on Spring Boot's {@code applicationTaskExecutor}
+ * (tunable under {@code spring.task.execution.*}).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,30 @@
+package devnsko.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed pools for CPU-heavy work that must not spread over every core: at most
+ * {@code threads} tasks run at once, at most {@code queueCapacity} wait, and anything beyond is
+ * rejected with {@link java.util.concurrent.RejectedExecutionException} for the caller to handle.
+ * Threads are daemons named {@code <name>-<n>}. Callers shut the pool down on context close.
+ */
+public final class BoundedExecutors {
+
+    private BoundedExecutors() {
+    }
+
+    public static ThreadPoolExecutor newFixed(String name, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,78 @@
+package devnsko.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-process Caffeine caches. Every cache records statistics so Actuator publishes
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} per cache name.
+ * Puts and evictions made inside a transaction are applied once it commits, so a read that
+ * races a write cannot cache the row as it was before the write.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Single posts by id, as {@link devnsko.dto.PostResponse}. */
+    public static final String POSTS = "posts";
+    /** Serialized {@code GET /posts/{id}} bodies with their ETag, by post id and version. */
+    public static final String POST_BODIES = "postBodies";
+    /** Rendered {@code GET /posts/{id}/html} bodies with their ETag, by post id and version. */
+    public static final String POST_HTML = "postHtml";
+    /** Pages of {@code GET /posts}, keyed by cursor and size. */
+    public static final String POST_PAGES = "postPages";
+    /** Pages of {@code GET /posts/summary}, keyed by cursor and size. */
+    public static final String POST_SUMMARIES = "postSummaries";
+
+    /** Authenticated principals by username, for the JWT filter. Short-lived on purpose. */
+    public static final String PRINCIPALS = "principals";
+
+    @Value("${posts.cache.maximum-size:10000}")
+    private long postsMaximumSize;
+
+    @Value("${posts.cache.expire-after-write:10m}")
+    private Duration postsExpireAfterWrite;
+
+    @Value("${posts.cache.pages-maximum-size:1000}")
+    private long pagesMaximumSize;
+
+    @Value("${security.jwt.principal-cache.maximum-size:10000}")
+    private long principalsMaximumSize;
+
+    @Value("${security.jwt.principal-cache.ttl:30s}")
+    private Duration principalsTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // No implicit caches: a misspelt cache name fails instead of silently getting defaults
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(POSTS, build(postsMaximumSize, postsExpireAfterWrite));
+        cacheManager.registerCustomCache(POST_BODIES, build(postsMaximumSize, postsExpireAfterWrite));
+        cacheManager.registerCustomCache(POST_HTML, build(postsMaximumSize, postsExpireAfterWrite));
+        cacheManager.registerCustomCache(POST_PAGES, build(pagesMaximumSize, postsExpireAfterWrite));
+        cacheManager.registerCustomCache(POST_SUMMARIES, build(pagesMaximumSize, postsExpireAfterWrite));
+        cacheManager.registerCustomCache(PRINCIPALS, build(principalsMaximumSize, principalsTtl));
+        // Caffeine's manager has no transaction support of its own
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Cache<Object, Object> build(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+}
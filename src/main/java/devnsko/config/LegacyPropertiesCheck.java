@@ -0,0 +1,52 @@
+package devnsko.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * Fails startup when the configuration still carries keys that Spring Boot 3 and HikariCP
+ * silently ignore, such as the Tomcat JDBC pool settings this project used to have. An ignored
+ * pool setting leaves the pool at its defaults, which only shows up under load.
+ *
+ * <p>Registered in {@code META-INF/spring.factories} so it runs before any bean is created.
+ */
+public class LegacyPropertiesCheck implements EnvironmentPostProcessor {
+
+    /** Ignored key prefixes and what to use instead. */
+    private static final Map<String, String> LEGACY_PREFIXES = Map.of(
+        "spring.tomcat.", "spring.datasource.hikari.*",
+        "spring.datasource.tomcat.", "spring.datasource.hikari.*",
+        "spring.datasource.dbcp2.", "spring.datasource.hikari.*",
+        "spring.datasource.max-active", "spring.datasource.hikari.maximum-pool-size",
+        "spring.datasource.max-idle", "spring.datasource.hikari.minimum-idle",
+        "spring.jpa.hibernate.use-new-id-generator-mappings", "nothing (removed in Hibernate 6)",
+        "spring.jpa.properties.hibernate.id.new_generator_mappings", "nothing (removed in Hibernate 6)");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        TreeSet<String> problems = new TreeSet<>();
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (!(source instanceof EnumerablePropertySource<?> enumerable)) {
+                continue;
+            }
+            for (String name : enumerable.getPropertyNames()) {
+                LEGACY_PREFIXES.forEach((prefix, replacement) -> {
+                    if (name.startsWith(prefix)) {
+                        problems.add(name + " (" + source.getName() + ") is ignored; use " + replacement);
+                    }
+                });
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Legacy configuration keys found:\n  "
+                + String.join("\n  ", List.copyOf(problems)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package devnsko.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write split, active once {@code datasource.replicas} lists at least one replica.
+ *
+ * <p>The application's {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy}
+ * over the primary pool. Spring marks the connections of {@code @Transactional(readOnly = true)}
+ * methods read-only before their first statement, and the proxy then takes the physical
+ * connection from {@link ReplicaRoutingDataSource} instead of the primary. Everything else,
+ * including schema updates and writes, stays on the primary.
+ *
+ * <p>Replicas are asynchronous, so a read right after a write may not see it yet; the lag
+ * bound limits how stale such a read can be.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource", name = "replicas[0].jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Value("${datasource.replica-lag.max-ms:5000}")
+    private long maxLagMillis;
+
+    @Value("${datasource.replica-lag.query:select extract(epoch from now() - pg_last_xact_replay_timestamp())}")
+    private String lagQuery;
+
+    /** The pool Boot would otherwise create from {@code spring.datasource.*}. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            Environment environment, MeterRegistry meterRegistry) {
+        // Each entry binds straight onto HikariCP's settings (jdbc-url, username, maximum-pool-size, ...)
+        List<HikariDataSource> replicas = Binder.get(environment)
+            .bind("datasource.replicas", Bindable.listOf(HikariDataSource.class))
+            .orElse(List.of());
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            if (replica.getPoolName() == null) {
+                replica.setPoolName("replica-" + (i + 1));
+            }
+            // hikaricp.connections.* per pool, tagged pool=<name>
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis, lagQuery, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
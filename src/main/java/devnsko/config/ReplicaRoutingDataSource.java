@@ -0,0 +1,128 @@
+package devnsko.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads read-only connections round-robin over the replicas whose replication lag is within
+ * bounds, and falls back to the primary when none is. Only ever handed read-only connections
+ * (see {@link ReplicaDataSourceConfig}), so a replica never sees a write.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final long maxLagMillis;
+    private final String lagQuery;
+
+    /** Lag per replica pool in milliseconds; -1 while the replica is unreachable. */
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    /** Pool names currently eligible for reads. Replaced wholesale after every lag check. */
+    private volatile List<String> available = List.of();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+            long maxLagMillis, String lagQuery, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (HikariDataSource replica : replicas) {
+            String name = replica.getPoolName();
+            targets.put(name, replica);
+            lagMillis.put(name, -1L);
+            routed.put(name, routedCounter(meterRegistry, name));
+            Gauge.builder("datasource.replica.lag", lagMillis, lags -> {
+                    long lag = lags.get(name);
+                    return lag < 0 ? Double.NaN : lag / 1000.0;
+                })
+                .tag("pool", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", this, routing -> routing.available.contains(name) ? 1 : 0)
+                .tag("pool", name)
+                .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.read-connections").tag("target", target).register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = available;
+        String key = candidates.isEmpty()
+            ? PRIMARY
+            : candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+        routed.get(key).increment();
+        return key;
+    }
+
+    /**
+     * Measures every replica's lag and refreshes the set that may serve reads. A replica that
+     * cannot be reached or is behind by more than the configured maximum is skipped until a
+     * later check finds it healthy again. Runs right after startup, so reads use the primary
+     * until the replicas have been checked once.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica-lag.check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = replicas.stream()
+            .filter(this::withinLag)
+            .map(HikariDataSource::getPoolName)
+            .toList();
+        if (!healthy.equals(available)) {
+            log.info("Replicas serving reads: {}", healthy.isEmpty() ? "none, reading from primary" : healthy);
+        }
+        available = healthy;
+    }
+
+    private boolean withinLag(HikariDataSource replica) {
+        String name = replica.getPoolName();
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            // NULL means the server is not replaying WAL, e.g. a primary used as its own replica
+            double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            long lag = Math.round(lagSeconds * 1000);
+            lagMillis.put(name, lag);
+            return lag <= maxLagMillis;
+        } catch (Exception e) {
+            lagMillis.put(name, -1L);
+            log.warn("Replica {} is unreachable: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,13 @@
+package devnsko.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs; they run on Spring Boot's
+ * {@code taskScheduler} (tunable under {@code spring.task.scheduling.*}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,136 @@
+package devnsko.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import devnsko.dto.MediaResponse;
+import devnsko.model.MediaModel;
+import devnsko.response.ServerResponse;
+import devnsko.service.MediaService;
+import devnsko.service.MediaService.MediaBlob;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/media")
+@Tag(name = "media")
+@RequiredArgsConstructor
+public class MediaController {
+
+    // Tomcat's sendfile request attributes, as its DefaultServlet uses them
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaService mediaService;
+
+    /**
+     * Upload. The body is the raw file with its own {@code Content-Type} (e.g. {@code image/png}),
+     * not multipart; it is streamed to storage without being buffered. Reference the returned
+     * {@code id} as {@code mediaId} in IMAGE and VIDEO blocks; their {@code url} becomes the
+     * returned public {@code url}.
+     */
+    @PostMapping
+    public ResponseEntity<ServerResponse> upload(HttpServletRequest request) throws IOException {
+        MediaModel media = mediaService.upload(request.getContentType(), request.getContentLengthLong(),
+            request.getInputStream());
+        return ResponseEntity.ok(ServerResponse.ok(Map.of("media", MediaResponse.from(media))));
+    }
+
+    @GetMapping("/{id}/info")
+    public ResponseEntity<ServerResponse> info(@PathVariable Integer id) {
+        return ResponseEntity.ok(ServerResponse.ok(Map.of("media", MediaResponse.from(mediaService.get(id)))));
+    }
+
+    /**
+     * The media bytes, without authentication so browsers can load them from posts; the key is
+     * the random one from the media's {@code url}, not its id. {@code ?w=} picks the narrowest
+     * resized variant at least that wide. A single {@code Range} is answered with 206 so videos
+     * can seek; several ranges get the whole body. Under Tomcat, files from the local store are
+     * written to the socket by Tomcat's sendfile, without passing through the heap.
+     */
+    @GetMapping("/{publicKey}")
+    public ResponseEntity<StreamingResponseBody> get(@PathVariable String publicKey,
+                                                     @RequestParam(name = "w", required = false) Integer width,
+                                                     @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                     @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                     WebRequest request, HttpServletRequest servletRequest) {
+        MediaBlob blob = mediaService.resolve(publicKey, width);
+        if (request.checkNotModified(blob.etag())) {
+            return null;
+        }
+        long size = blob.size();
+        long start = 0;
+        long end = size - 1;
+        HttpRange byteRange = singleRange(range, ifRange, blob.etag());
+        if (byteRange != null) {
+            start = byteRange.getRangeStart(size);
+            end = byteRange.getRangeEnd(size);
+            if (start >= size || end < start) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+            }
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(byteRange != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+            // No .eTag(): checkNotModified has set it already, and streamed bodies would repeat the header
+            // Stored blobs never change, so browsers and CDNs may keep them without revalidating
+            .cacheControl(blob.immutable()
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache())
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .contentType(MediaType.parseMediaType(blob.contentType()));
+        if (byteRange != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        long position = start;
+        long count = end - start + 1;
+        Path file = mediaService.file(blob);
+        if (file != null && HttpMethod.GET.matches(servletRequest.getMethod())
+                && Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat sends the file once the headers are out; the end is exclusive
+            servletRequest.setAttribute(SENDFILE_FILENAME, file.toString());
+            servletRequest.setAttribute(SENDFILE_START, position);
+            servletRequest.setAttribute(SENDFILE_END, position + count);
+            return response.contentLength(count).build();
+        }
+        StreamingResponseBody body = out -> mediaService.transferTo(blob, position, count, Channels.newChannel(out));
+        return response.contentLength(count).body(body);
+    }
+
+    /** The requested range, or {@code null} to send the whole body (RFC 9110 lets us ignore the rest). */
+    private static HttpRange singleRange(String range, String ifRange, String etag) {
+        if (range == null || (ifRange != null && !ifRange.equals(etag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
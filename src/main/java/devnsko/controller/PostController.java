@@ -1,54 +1,198 @@
 package devnsko.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import devnsko.dto.CursorPage;
+import devnsko.dto.ImportResult;
+import devnsko.dto.PostPatchRequest;
 import devnsko.dto.PostRequst;
-import devnsko.model.PostModel;
+import devnsko.dto.PostResponse;
+import devnsko.dto.PostSummary;
+import devnsko.dto.SearchHit;
+import devnsko.response.RenderedPost;
 import devnsko.response.ServerResponse;
+import devnsko.service.PostExportService;
+import devnsko.service.PostHtmlService;
+import devnsko.service.PostImportService;
+import devnsko.service.PostPatchService;
+import devnsko.service.PostPatchService.PatchResult;
+import devnsko.service.PostRenderService;
 import devnsko.service.PostService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 
 
+@Slf4j
 @RestController
 @RequestMapping("/posts")
 @Tag(name = "posts")
 @RequiredArgsConstructor
 public class PostController {
 
+    private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
     private final PostService postService;
+    private final PostRenderService postRenderService;
+    private final PostImportService postImportService;
+    private final PostExportService postExportService;
+    private final PostPatchService postPatchService;
+    private final PostHtmlService postHtmlService;
 
     @GetMapping
-    public ResponseEntity<ServerResponse> getAllPosts() {
-        List<PostModel> posts = postService.getAll();
-        return ResponseEntity.ok(ServerResponse.ok(Map.of("posts", posts)));
+    public ResponseEntity<ServerResponse> getAllPosts(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
+        CursorPage<PostResponse> page = postService.getPage(cursor, size);
+        return ResponseEntity.ok(ServerResponse.ok(Map.of("posts", page.items()), page.nextCursor()));
     }
-    
 
+    @GetMapping("/summary")
+    public ResponseEntity<ServerResponse> getPostSummaries(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        CursorPage<PostSummary> page = postService.getSummaryPage(cursor, size);
+        return ResponseEntity.ok(ServerResponse.ok(Map.of("posts", page.items()), page.nextCursor()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ServerResponse> searchPosts(@RequestParam("q") String query,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(required = false) Integer size) {
+        List<SearchHit> hits = postService.search(query, page, size);
+        return ResponseEntity.ok(ServerResponse.ok(Map.of("hits", hits, "page", page)));
+    }
+
+    /**
+     * Every post with its blocks, one JSON object per line, streamed straight from a database
+     * cursor. For backups and reindexing.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        StreamingResponseBody body = postExportService::exportNdjson;
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
+    /**
+     * Serves the precompressed body to clients that accept gzip. Tomcat leaves a response that
+     * already has a {@code Content-Encoding} alone, so the body is never compressed twice.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ServerResponse> getPostById(@PathVariable Integer id) {
-        PostModel post = postService.getById(id);
-        return ResponseEntity.ok(ServerResponse.ok(Map.of("post", post)));
+    public ResponseEntity<byte[]> getPostById(@PathVariable Integer id,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                              WebRequest request) {
+        return serve(postRenderService.render(id), MediaType.APPLICATION_JSON, acceptEncoding, request);
+    }
+
+    /**
+     * The post as one sanitized HTML fragment ({@code <article>}), rendered once per version in
+     * the background. Safe to insert into a page without further escaping.
+     */
+    @GetMapping(value = "/{id}/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getPostHtml(@PathVariable Integer id,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                              WebRequest request) {
+        return serve(postHtmlService.getHtml(id), HTML_UTF8, acceptEncoding, request);
+    }
+
+    private static ResponseEntity<byte[]> serve(RenderedPost post, MediaType contentType, String acceptEncoding,
+                                                WebRequest request) {
+        boolean gzip = post.gzipBody() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? post.gzipEtag() : post.etag();
+        if (request.checkNotModified(etag)) {
+            // 304 with the ETag has already been written
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(contentType);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(post.gzipBody());
+        }
+        return response.body(post.body());
+    }
+
+    /** True if the header lists {@code gzip} (or {@code *}) without {@code q=0}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
     
     @PostMapping
     public ResponseEntity<ServerResponse> create(@RequestBody PostRequst req) {
-        System.out.println(req);
-        System.out.println(req.getBlocks());
-        // Convert PostRequst to PostModel using a constructor or mapping method
+        log.debug("Create post request title={} blocks={}", req.getTitle(), req.getBlocks() == null ? 0 : req.getBlocks().size());
         Integer newPostId = postService.create(req);
         return ResponseEntity.ok(ServerResponse.ok(Map.of("id", newPostId)));
     }
 
+    /**
+     * Block-level edit: inserts, replaces, moves and deletes single blocks, guarded by the
+     * post version the client last read.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ServerResponse> patch(@PathVariable Integer id, @RequestBody PostPatchRequest req) {
+        PatchResult result = postPatchService.patch(id, req);
+        return ResponseEntity.ok(ServerResponse.ok(Map.of(
+            "id", id,
+            "version", result.version(),
+            "insertedBlockIds", result.insertedBlockIds())));
+    }
+
+    /**
+     * Bulk import. The body is an NDJSON stream ({@code application/x-ndjson}) or a JSON array
+     * of post requests; it is parsed incrementally and never held in memory as a whole.
+     */
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ServerResponse> importPosts(HttpServletRequest request) throws IOException {
+        List<ImportResult> results = postImportService.importPosts(request.getInputStream());
+        long failed = results.stream().filter(r -> r.error() != null).count();
+        return ResponseEntity.ok(ServerResponse.ok(Map.of(
+            "imported", results.size() - failed,
+            "failed", failed,
+            "results", results)));
+    }
+
     
 }
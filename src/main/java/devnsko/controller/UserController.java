@@ -10,7 +10,6 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,7 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import devnsko.dto.UserDataDTO;
 import devnsko.dto.UserResponseDTO;
 import devnsko.dto.UserSignInDTO;
-import devnsko.model.AppUser;
+import devnsko.exception.CustomException;
 import devnsko.response.ServerResponse;
 import devnsko.service.UserService;
 
@@ -35,21 +34,24 @@ import devnsko.service.UserService;
 public class UserController {
 
   private final UserService userService;
-  private final ModelMapper modelMapper;
 
   @PostMapping("/signin")
   @Operation(summary = "${UserController.signin}")
   @ApiResponses(value = {
          @ApiResponse(responseCode = "400", description = "Something went wrong"),
-         @ApiResponse(responseCode = "422", description = "Invalid username/password supplied")
+         @ApiResponse(responseCode = "422", description = "Invalid username/password supplied"),
+         @ApiResponse(responseCode = "429", description = "Too many sign-in attempts"),
+         @ApiResponse(responseCode = "503", description = "Too many authentication requests")
   })
-  public ResponseEntity<ServerResponse> login(@RequestBody UserSignInDTO user) {
+  public ResponseEntity<ServerResponse> login(@RequestBody UserSignInDTO user, HttpServletRequest req) {
     try {
-      String token = userService.signin(user.getUsername(), user.getPassword());
+      String token = userService.signin(user.getUsername(), user.getPassword(), req.getRemoteAddr());
       if (token != null && token.length() > 0){
         return ResponseEntity.ok(ServerResponse.ok(token));
       } else 
         return ResponseEntity.badRequest().body(ServerResponse.error("Something went wrong"));
+    } catch (CustomException e) {
+      return ResponseEntity.status(e.getHttpStatus()).body(ServerResponse.error(e.getMessage()));
     } catch (Exception e) {
       return ResponseEntity.badRequest().body(ServerResponse.error("Something went wrong"));
     }
@@ -64,7 +66,7 @@ public class UserController {
   })
   public ResponseEntity<ServerResponse> signup(@Parameter(description = "Signup User") @RequestBody UserDataDTO user) {
     try {
-      String token = userService.signup(modelMapper.map(user, AppUser.class));
+      String token = userService.signup(user.toAppUser());
       if (token != null && token.length() > 0){
         return ResponseEntity.ok(ServerResponse.ok(token));
       } else
@@ -102,7 +104,7 @@ public class UserController {
   }, security = @SecurityRequirement(name = "apiKey"))
   public ResponseEntity<ServerResponse> search(@Parameter(description = "Username") @PathVariable String username) {
     try {
-      UserResponseDTO userResponse = modelMapper.map(userService.search(username), UserResponseDTO.class);
+      UserResponseDTO userResponse = UserResponseDTO.from(userService.search(username));
       return ResponseEntity.ok(ServerResponse.ok(userResponse));
     } catch (Exception e) {
       return ResponseEntity.badRequest().body(ServerResponse.error(String.format("Something went wrong: %s", e)));
@@ -119,7 +121,7 @@ public class UserController {
   public ResponseEntity<ServerResponse> whoami(HttpServletRequest req) {
     
     try {
-      UserResponseDTO userResponse = modelMapper.map(userService.whoami(req), UserResponseDTO.class);
+      UserResponseDTO userResponse = UserResponseDTO.from(userService.whoami(req));
       return ResponseEntity.ok(ServerResponse.ok(userResponse));
     } catch (Exception e) {
       return ResponseEntity.badRequest().body(ServerResponse.error(String.format("Something went wrong: %s", e)));
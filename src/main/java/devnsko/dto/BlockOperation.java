@@ -0,0 +1,32 @@
+package devnsko.dto;
+
+import devnsko.dto.block.BlockData;
+import devnsko.dto.block.BlockPayload;
+import devnsko.type.BlockOperationType;
+import devnsko.type.PostBlockType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One edit of a {@link PostPatchRequest}. {@code index} is a zero-based position among the
+ * post's blocks as they stand after the preceding operations; {@code type} and {@code data}
+ * are only read by INSERT and REPLACE.
+ */
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class BlockOperation {
+    private BlockOperationType op;
+    private Integer blockId;
+    private Integer index;
+    private PostBlockType type;
+
+    @BlockPayload
+    private BlockData data;
+}
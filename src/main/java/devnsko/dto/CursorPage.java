@@ -0,0 +1,14 @@
+package devnsko.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token to pass back
+ * as {@code ?cursor=} for the following page, or {@code null} when there are no more items.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public CursorPage {
+        items = List.copyOf(items);
+    }
+}
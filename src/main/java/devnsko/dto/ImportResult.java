@@ -0,0 +1,19 @@
+package devnsko.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one entry of a bulk import, by its zero-based position in the request body:
+ * either the new post {@code id} or the {@code error} that rejected it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportResult(int index, Integer id, String error) {
+
+    public static ImportResult created(int index, Integer id) {
+        return new ImportResult(index, id, null);
+    }
+
+    public static ImportResult failed(int index, String error) {
+        return new ImportResult(index, null, error);
+    }
+}
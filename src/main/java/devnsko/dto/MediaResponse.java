@@ -0,0 +1,30 @@
+package devnsko.dto;
+
+import java.util.List;
+
+import devnsko.model.MediaModel;
+import devnsko.type.MediaStatus;
+
+/**
+ * Uploaded media as returned by {@code /media}. {@code url} serves the original; each variant's
+ * {@code url} serves that resized copy. Both are public. Blocks reference the media by {@code id}.
+ */
+public record MediaResponse(Integer id, String contentType, long size, Integer width, Integer height,
+                            MediaStatus status, String url, List<Variant> variants) {
+
+    public record Variant(int width, int height, String url) {
+    }
+
+    public static MediaResponse from(MediaModel media) {
+        String url = url(media.getPublicKey());
+        return new MediaResponse(media.getId(), media.getContentType(), media.getSize(), media.getWidth(),
+            media.getHeight(), media.getStatus(), url,
+            media.getVariants().stream()
+                .map(variant -> new Variant(variant.getWidth(), variant.getHeight(), url + "?w=" + variant.getWidth()))
+                .toList());
+    }
+
+    public static String url(String publicKey) {
+        return "/media/" + publicKey;
+    }
+}
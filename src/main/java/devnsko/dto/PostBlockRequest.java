@@ -1,7 +1,7 @@
 package devnsko.dto;
 
-import java.util.Map;
-
+import devnsko.dto.block.BlockData;
+import devnsko.dto.block.BlockPayload;
 import devnsko.type.PostBlockType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,5 +18,7 @@ import lombok.ToString;
 public class PostBlockRequest {
     private PostBlockType type;
     private int orderIndex;
-    private Map<String, Object> data;
-}
\ No newline at end of file
+
+    @BlockPayload
+    private BlockData data;
+}
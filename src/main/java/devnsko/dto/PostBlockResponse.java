@@ -0,0 +1,18 @@
+package devnsko.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import devnsko.model.PostBlockModel;
+import devnsko.type.PostBlockType;
+
+/**
+ * {@code data} is the stored block JSON and is written into the response verbatim, as a
+ * nested object rather than an escaped string. {@code orderIndex} is the block's zero-based
+ * position in the post; the stored order key is not exposed.
+ */
+public record PostBlockResponse(Integer id, PostBlockType type, Integer orderIndex, @JsonRawValue String data) {
+
+    public static PostBlockResponse from(PostBlockModel block, int position) {
+        return new PostBlockResponse(block.getId(), block.getType(), position, block.getData());
+    }
+}
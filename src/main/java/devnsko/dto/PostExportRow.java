@@ -0,0 +1,11 @@
+package devnsko.dto;
+
+import devnsko.type.PostBlockType;
+
+/**
+ * One row of the export query: a post joined with one of its blocks. Posts without blocks
+ * produce a single row whose block columns are {@code null}.
+ */
+public record PostExportRow(Integer postId, String title, Long version,
+                            Integer blockId, PostBlockType type, String data) {
+}
@@ -0,0 +1,26 @@
+package devnsko.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Body of {@code PATCH /posts/{id}}. {@code version} is the post version the client edited
+ * (as returned by {@code GET /posts/{id}}); the patch is rejected with 409 if the post has
+ * changed since. A null {@code title} leaves the title as it is.
+ */
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class PostPatchRequest {
+    private Long version;
+    private String title;
+    private List<BlockOperation> operations;
+}
@@ -0,0 +1,27 @@
+package devnsko.dto;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import devnsko.model.PostModel;
+
+/**
+ * Immutable, detached view of a post and its blocks. Safe to cache and to serialize outside
+ * a persistence context, unlike the managed {@link PostModel}.
+ */
+public record PostResponse(Integer id, String title, Long version, List<PostBlockResponse> blocks) {
+
+    public PostResponse {
+        blocks = List.copyOf(blocks);
+    }
+
+    public static PostResponse from(PostModel post) {
+        return new PostResponse(
+            post.getId(),
+            post.getTitle(),
+            post.getVersion(),
+            IntStream.range(0, post.getBlocks().size())
+                .mapToObj(i -> PostBlockResponse.from(post.getBlocks().get(i), i))
+                .toList());
+    }
+}
@@ -0,0 +1,8 @@
+package devnsko.dto;
+
+/**
+ * Front-page view of a post: no block payloads, only how many blocks it has and a plain-text
+ * excerpt of its first TEXT block ({@code null} when it has none).
+ */
+public record PostSummary(Integer id, String title, long blockCount, String excerpt) {
+}
@@ -0,0 +1,8 @@
+package devnsko.dto;
+
+/**
+ * One search result. {@code highlight} is an HTML-escaped fragment of the post with matched
+ * terms wrapped in {@code <mark>}.
+ */
+public record SearchHit(Integer id, String title, double score, String highlight) {
+}
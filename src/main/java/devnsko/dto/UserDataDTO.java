@@ -1,7 +1,9 @@
 package devnsko.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import devnsko.model.AppUser;
 import devnsko.model.AppUserRole;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
@@ -20,4 +22,14 @@ public class UserDataDTO {
   @Schema(description = "User roles")
   List<AppUserRole> appUserRoles;
 
+  /** A new, unsaved user; the password is still plain text and is encoded by the service. */
+  public AppUser toAppUser() {
+    AppUser user = new AppUser();
+    user.setUsername(username);
+    user.setEmail(email);
+    user.setPassword(password);
+    user.setAppUserRoles(appUserRoles == null ? null : new ArrayList<>(appUserRoles));
+    return user;
+  }
+
 }
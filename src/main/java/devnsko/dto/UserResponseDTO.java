@@ -2,20 +2,22 @@ package devnsko.dto;
 
 import java.util.List;
 
+import devnsko.model.AppUser;
 import devnsko.model.AppUserRole;
 import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.Data;
 
-@Data
-public class UserResponseDTO {
+public record UserResponseDTO(
+    @Schema(description = "user id") Integer id,
+    @Schema(description = "user name") String username,
+    @Schema(description = "user email") String email,
+    @Schema(description = "user roles") List<AppUserRole> appUserRoles) {
 
-  @Schema(description = "user id")
-  private Integer id;
-  @Schema(description = "user name")
-  private String username;
-  @Schema(description = "user email")
-  private String email;
-  @Schema(description = "user roles")
-  List<AppUserRole> appUserRoles;
+  public UserResponseDTO {
+    appUserRoles = appUserRoles == null ? List.of() : List.copyOf(appUserRoles);
+  }
+
+  public static UserResponseDTO from(AppUser user) {
+    return new UserResponseDTO(user.getId(), user.getUsername(), user.getEmail(), user.getAppUserRoles());
+  }
 
 }
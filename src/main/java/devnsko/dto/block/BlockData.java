@@ -0,0 +1,32 @@
+package devnsko.dto.block;
+
+/**
+ * Typed payload of a post block. Which record applies is decided by the block's
+ * {@link devnsko.type.PostBlockType}, see {@link devnsko.type.PostBlockType#getDataType()}.
+ */
+public sealed interface BlockData
+        permits TextBlockData, ImageBlockData, VideoBlockData, CodeBlockData, QuoteBlockData {
+
+    /**
+     * Text this block contributes to full-text search, or {@code null} for blocks without
+     * readable text (media).
+     */
+    default String searchableText() {
+        return null;
+    }
+
+    /** URL of the media this block shows, or {@code null} for blocks without media. */
+    default String mediaUrl() {
+        return null;
+    }
+
+    /** Id of the upload ({@code POST /media}) this block shows, or {@code null}. */
+    default Integer mediaId() {
+        return null;
+    }
+
+    /** This payload pointing at {@code url}; blocks without media return themselves. */
+    default BlockData withMediaUrl(String url) {
+        return this;
+    }
+}
@@ -0,0 +1,45 @@
+package devnsko.dto.block;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+
+import devnsko.type.PostBlockType;
+
+/**
+ * Maps a block's {@code type} name to its payload record through
+ * {@link PostBlockType#getDataType()}, so a new block type needs no Jackson subtype list.
+ */
+public class BlockDataTypeIdResolver extends TypeIdResolverBase {
+
+    @Override
+    public String idFromValue(Object value) {
+        return idFromValueAndType(value, value.getClass());
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        for (PostBlockType type : PostBlockType.values()) {
+            if (type.getDataType() == suggestedType) {
+                return type.name();
+            }
+        }
+        throw new IllegalArgumentException("No block type for " + suggestedType.getName());
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) {
+        try {
+            return context.constructType(PostBlockType.valueOf(id).getDataType());
+        } catch (IllegalArgumentException e) {
+            // Jackson reports the unknown id as an invalid type id
+            return null;
+        }
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.CUSTOM;
+    }
+}
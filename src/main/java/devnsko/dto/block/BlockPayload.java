@@ -0,0 +1,22 @@
+package devnsko.dto.block;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+
+/**
+ * Marks a {@link BlockData} field whose record is chosen by the sibling {@code type} property,
+ * e.g. TEXT -> {@link TextBlockData}. Shared by every request that carries block payloads.
+ */
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonTypeInfo(use = JsonTypeInfo.Id.CUSTOM, include = JsonTypeInfo.As.EXTERNAL_PROPERTY, property = "type", visible = true)
+@JsonTypeIdResolver(BlockDataTypeIdResolver.class)
+public @interface BlockPayload {
+}
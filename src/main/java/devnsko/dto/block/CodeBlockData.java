@@ -0,0 +1,12 @@
+package devnsko.dto.block;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CodeBlockData(String language, String code) implements BlockData {
+
+    @Override
+    public String searchableText() {
+        return code;
+    }
+}
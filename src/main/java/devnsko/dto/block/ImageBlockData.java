@@ -0,0 +1,22 @@
+package devnsko.dto.block;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An image, either uploaded ({@code mediaId} from {@code POST /media}; {@code url} is then set
+ * to the upload's public URL when the post is saved) or external ({@code url} only). Inline
+ * {@code data:} URLs are refused.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageBlockData(String url, String alt, String caption, Integer mediaId) implements BlockData {
+
+    @Override
+    public String mediaUrl() {
+        return url;
+    }
+
+    @Override
+    public ImageBlockData withMediaUrl(String url) {
+        return new ImageBlockData(url, alt, caption, mediaId);
+    }
+}
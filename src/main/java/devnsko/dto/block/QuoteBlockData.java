@@ -0,0 +1,15 @@
+package devnsko.dto.block;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QuoteBlockData(String text, String author) implements BlockData {
+
+    @Override
+    public String searchableText() {
+        if (text == null || author == null) {
+            return text == null ? author : text;
+        }
+        return text + "\n" + author;
+    }
+}
@@ -0,0 +1,18 @@
+package devnsko.dto.block;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** A video; see {@link ImageBlockData} for how {@code mediaId} and {@code url} relate. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record VideoBlockData(String url, String caption, Integer mediaId) implements BlockData {
+
+    @Override
+    public String mediaUrl() {
+        return url;
+    }
+
+    @Override
+    public VideoBlockData withMediaUrl(String url) {
+        return new VideoBlockData(url, caption, mediaId);
+    }
+}
@@ -0,0 +1,8 @@
+package devnsko.event;
+
+/**
+ * Published when an image was stored; resized variants are generated once the transaction that
+ * recorded it has committed.
+ */
+public record MediaUploadedEvent(Integer mediaId) {
+}
@@ -0,0 +1,19 @@
+package devnsko.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when posts were created or their content changed. Listeners that derive data from
+ * post content (search index, ...) react to it once the writing transaction has committed.
+ */
+public record PostsChangedEvent(Collection<Integer> postIds) {
+
+    public PostsChangedEvent {
+        postIds = List.copyOf(postIds);
+    }
+
+    public static PostsChangedEvent of(Integer postId) {
+        return new PostsChangedEvent(List.of(postId));
+    }
+}
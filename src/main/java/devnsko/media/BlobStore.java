@@ -0,0 +1,41 @@
+package devnsko.media;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Storage for uploaded media bytes, addressed by keys the application generates. Selected with
+ * {@code media.store}; {@code local} (files under {@code media.local.root}) is the default.
+ * A key is written once and never changes afterwards.
+ */
+public interface BlobStore {
+
+    /**
+     * Streams {@code source} to {@code key} until end of stream and returns the number of bytes
+     * stored. Fails with 413 once more than {@code maxSize} bytes arrive; nothing is stored then.
+     */
+    long write(String key, ReadableByteChannel source, long maxSize) throws IOException;
+
+    /** The whole blob, for background processing. The caller closes the channel. */
+    ReadableByteChannel read(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    /**
+     * Copies up to {@code count} bytes starting at {@code position} to {@code target} and
+     * returns how many were copied. Used to serve (ranges of) blobs.
+     */
+    long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * The local file holding the blob, which the web server may send to the socket itself, or
+     * {@code null} when the store does not keep blobs in local files.
+     */
+    default Path file(String key) {
+        return null;
+    }
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,108 @@
+package devnsko.media;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import devnsko.exception.CustomException;
+
+/**
+ * Keeps blobs as files under {@code media.local.root}. Uploads land in a temporary file and are
+ * renamed into place, so a key is either complete or absent. Bytes move with
+ * {@link FileChannel#transferFrom} and {@link FileChannel#transferTo}; the channels on the other
+ * side wrap servlet streams, so the JDK copies through a heap buffer. Serving without that copy
+ * is left to Tomcat's sendfile, which {@link #file} makes possible.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store", havingValue = "local", matchIfMissing = true)
+public class LocalFileBlobStore implements BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]+(/[A-Za-z0-9_.-]+)*");
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+
+    public LocalFileBlobStore(@Value("${media.local.root:./data/media}") Path root) throws IOException {
+        this.root = Files.createDirectories(root).toRealPath();
+    }
+
+    @Override
+    public long write(String key, ReadableByteChannel source, long maxSize) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long written = 0;
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                // Ask for at most one byte past the limit, so an oversized upload is noticed without storing it all
+                while (written <= maxSize
+                        && (transferred = file.transferFrom(source, written, Math.min(TRANSFER_CHUNK, maxSize + 1 - written))) > 0) {
+                    written += transferred;
+                }
+            }
+            if (written > maxSize) {
+                throw new CustomException("Media is larger than " + maxSize + " bytes", HttpStatus.PAYLOAD_TOO_LARGE);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel read(String key) throws IOException {
+        return FileChannel.open(resolve(key), StandardOpenOption.READ);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel file = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long end = Math.min(position + count, file.size());
+            long current = position;
+            while (current < end) {
+                long transferred = file.transferTo(current, end - current, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                current += transferred;
+            }
+            return current - position;
+        }
+    }
+
+    @Override
+    public Path file(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        // Keys are generated by the application; refuse anything that could leave the root
+        if (!KEY.matcher(key).matches() || key.contains("..")) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key);
+    }
+}
@@ -0,0 +1,39 @@
+package devnsko.model;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+
+/**
+ * Base for entities whose id is assigned by the application (a post's id) rather than
+ * generated. Spring Data cannot tell from such an id whether the row exists, so entities track
+ * it themselves and {@code save} inserts new ones instead of merging them with a SELECT first.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<Integer> {
+
+    @Transient
+    private boolean isNew;
+
+    protected AssignedIdEntity() {
+    }
+
+    /** For entities created by the application, as opposed to loaded by Hibernate. */
+    protected AssignedIdEntity(boolean isNew) {
+        this.isNew = isNew;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,70 @@
+package devnsko.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import devnsko.type.MediaStatus;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An uploaded image or video. The bytes live in the {@link devnsko.media.BlobStore} under
+ * {@code storageKey} and are served at {@code /media/{publicKey}}; IMAGE and VIDEO blocks
+ * reference the media by id.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "media")
+public class MediaModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "media_seq")
+    @SequenceGenerator(name = "media_seq", sequenceName = "media_seq", allocationSize = 50)
+    private Integer id;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "storage_key", nullable = false, unique = true)
+    private String storageKey;
+
+    /** Random, so public URLs cannot be enumerated the way sequential ids can. */
+    @Column(name = "public_key", nullable = false, unique = true, length = 36)
+    private String publicKey;
+
+    private long size;
+
+    /** Pixel size of images, once known; {@code null} for videos. */
+    private Integer width;
+
+    private Integer height;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MediaStatus status;
+
+    // A handful of rows at most, needed whenever the media is served
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "media_variants", joinColumns = @JoinColumn(name = "media_id"))
+    @OrderBy("width ASC")
+    private List<MediaVariant> variants = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,27 @@
+package devnsko.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** A resized copy of an uploaded image. */
+@Embeddable
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaVariant {
+    private int width;
+
+    private int height;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+
+    private long size;
+}
@@ -1,6 +1,10 @@
 package devnsko.model;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 
 import devnsko.type.PostBlockType;
 import jakarta.persistence.Column;
@@ -11,8 +15,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,18 +27,30 @@ import lombok.Setter;
 @Entity
 @Getter @Setter
 @NoArgsConstructor
-@Table(name = "post_blocks")
+@Table(name = "post_blocks", indexes = {
+    // Ordered reads of a post's blocks are a range scan of this index
+    @Index(name = "post_blocks_post_order_key_idx", columnList = "post_id, order_key")
+})
 public class PostBlockModel {
+    public static final int MAX_ORDER_KEY_LENGTH = 64;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Same pooled-sequence scheme as PostModel.id, so a post's blocks are inserted in JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_blocks_seq")
+    @SequenceGenerator(name = "post_blocks_seq", sequenceName = "post_blocks_seq", allocationSize = 50)
     private Integer id;
 
     @Enumerated(EnumType.STRING)
     private PostBlockType type;
 
-    private Integer orderIndex;
+    /** Position within the post; see {@link devnsko.service.OrderKeys}. */
+    @Column(name = "order_key", length = MAX_ORDER_KEY_LENGTH)
+    private String orderKey;
 
-    // @Column(name = "data", columnDefinition = "jsonb")
+    // Native JSON column: jsonb on PostgreSQL, json on H2. The string is passed through as-is.
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "data")
+    @JsonRawValue
     private String data;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,48 @@
+package devnsko.model;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A post compiled to sanitized HTML, as of {@code version}. Written in the background after each
+ * change (see {@link devnsko.service.PostHtmlService}) and kept out of {@code posts} so other
+ * queries don't read it.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "post_html")
+public class PostHtmlModel extends AssignedIdEntity {
+    @Id
+    private Integer postId;
+
+    /** The post version this HTML was rendered from. */
+    @Column(nullable = false)
+    private Long version;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String html;
+
+    @Column(name = "rendered_at", nullable = false)
+    private Instant renderedAt;
+
+    public PostHtmlModel(Integer postId) {
+        super(true);
+        this.postId = postId;
+    }
+
+    @Override
+    public Integer getId() {
+        return postId;
+    }
+}
@@ -0,0 +1,39 @@
+package devnsko.model;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Plain-text search document of a post (title plus the text of its text-bearing blocks), kept
+ * out of {@code posts} so listing queries don't read it. On PostgreSQL the table also has a
+ * generated {@code search_vector tsvector} column with a GIN index, see
+ * {@code db/postgresql/003-post-search.sql}.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "post_search")
+public class PostSearchModel extends AssignedIdEntity {
+    @Id
+    private Integer postId;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String document;
+
+    public PostSearchModel(Integer postId) {
+        super(true);
+        this.postId = postId;
+    }
+
+    @Override
+    public Integer getId() {
+        return postId;
+    }
+}
@@ -0,0 +1,14 @@
+package devnsko.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import devnsko.model.MediaModel;
+
+@Repository
+public interface MediaRepository extends JpaRepository<MediaModel, Integer> {
+
+    Optional<MediaModel> findByPublicKey(String publicKey);
+}
@@ -0,0 +1,57 @@
+package devnsko.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import devnsko.model.PostBlockModel;
+import devnsko.type.PostBlockType;
+
+/**
+ * Statement-level block edits for {@code PATCH /posts/{id}}. Every write touches rows by id
+ * and post, without loading the post's block collection, and flushes pending inserts first so
+ * operations apply in order.
+ */
+@Repository
+public interface PostBlockRepository extends JpaRepository<PostBlockModel, Integer> {
+
+    /** Block ids of a post in display order, with their order keys. */
+    @Query("""
+            select b.id as id, b.orderKey as orderKey
+            from PostBlockModel b
+            where b.post.id = :postId
+            order by b.orderKey, b.id
+            """)
+    List<BlockPosition> findPositions(@Param("postId") Integer postId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update PostBlockModel b set b.type = :type, b.data = :data where b.id = :id and b.post.id = :postId")
+    int replace(@Param("postId") Integer postId, @Param("id") Integer id,
+                @Param("type") PostBlockType type, @Param("data") String data);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update PostBlockModel b set b.orderKey = :orderKey where b.id = :id and b.post.id = :postId")
+    int moveTo(@Param("postId") Integer postId, @Param("id") Integer id, @Param("orderKey") String orderKey);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from PostBlockModel b where b.id = :id and b.post.id = :postId")
+    int deleteFromPost(@Param("postId") Integer postId, @Param("id") Integer id);
+
+    @Query("""
+            select b from PostBlockModel b
+            where b.post.id = :postId
+            order by b.orderKey, b.id
+            """)
+    List<PostBlockModel> findForRebalance(@Param("postId") Integer postId);
+
+    interface BlockPosition {
+        Integer getId();
+
+        String getOrderKey();
+    }
+
+}
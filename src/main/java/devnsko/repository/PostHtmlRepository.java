@@ -0,0 +1,24 @@
+package devnsko.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import devnsko.model.PostHtmlModel;
+
+@Repository
+public interface PostHtmlRepository extends JpaRepository<PostHtmlModel, Integer> {
+
+    /** Ids after {@code afterId} whose HTML is missing or older than the post, in id order. */
+    @Query("""
+            select p.id from PostModel p
+            where p.id > :afterId
+              and not exists (select 1 from PostHtmlModel h where h.postId = p.id and h.version = p.version)
+            order by p.id
+            """)
+    List<Integer> findStalePostIds(@Param("afterId") Integer afterId, Limit limit);
+}
@@ -1,11 +1,116 @@
 package devnsko.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import devnsko.dto.PostExportRow;
 import devnsko.model.PostModel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface PostRepository extends JpaRepository<PostModel, Integer> {
-    
+
+    /**
+     * Keyset page: ids strictly greater than {@code afterId}, in id order. Paging on ids first
+     * keeps the row limit in SQL; limiting a join fetch would make Hibernate paginate in memory.
+     */
+    @Query("select p.id from PostModel p where p.id > :afterId order by p.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    /**
+     * Loads the given posts together with their blocks in a single join-fetch statement.
+     */
+    @EntityGraph(attributePaths = "blocks")
+    List<PostModel> findWithBlocksByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "blocks")
+    Optional<PostModel> findWithBlocksById(Integer id);
+
+    @Query("select p.version from PostModel p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    /**
+     * Keyset page of id and title only; the closed projection keeps the select list (and the
+     * statement) on {@code posts} alone.
+     */
+    List<PostTitleView> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    /**
+     * One aggregate over {@code post_blocks} for a page of posts: block count and the raw data
+     * of the first TEXT block of each post. Posts without blocks have no row.
+     */
+    @Query("""
+            select b.post.id as postId,
+                   count(b) as blockCount,
+                   max(case when b.type = devnsko.type.PostBlockType.TEXT
+                             and b.orderKey = (select min(t.orderKey) from PostBlockModel t
+                                                 where t.post = b.post and t.type = devnsko.type.PostBlockType.TEXT)
+                            then cast(b.data as String) end) as firstTextData
+            from PostBlockModel b
+            where b.post.id in :postIds
+            group by b.post.id
+            """)
+    List<PostBlockStats> findBlockStats(@Param("postIds") Collection<Integer> postIds);
+
+    /**
+     * Every post with its blocks as flat rows, ordered so each post's rows are adjacent. Rows are
+     * DTOs, so nothing accumulates in the persistence context; must be consumed inside a
+     * transaction and closed.
+     */
+    @Query("""
+            select new devnsko.dto.PostExportRow(p.id, p.title, p.version,
+                                                 b.id, b.type, cast(b.data as String))
+            from PostModel p left join p.blocks b
+            order by p.id, b.orderKey
+            """)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<PostExportRow> streamExportRows();
+
+    /**
+     * Compare-and-set on the version column: bumps the version (and sets the title unless it is
+     * null) only if the post is still at {@code version}. Returns 0 when another writer got
+     * there first. Concurrent callers queue on the row lock, so exactly one of them wins.
+     */
+    @Modifying
+    @Query("""
+            update PostModel p
+            set p.version = p.version + 1, p.title = coalesce(:title, p.title)
+            where p.id = :id and p.version = :version
+            """)
+    int bumpVersion(@Param("id") Integer id, @Param("version") Long version, @Param("title") String title);
+
+    /** Locks the post's row until the transaction ends; held while its block keys are rewritten. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PostModel> findLockedById(Integer id);
+
+    interface PostTitleView {
+        Integer getId();
+
+        String getTitle();
+    }
+
+    interface PostBlockStats {
+        Integer getPostId();
+
+        Long getBlockCount();
+
+        String getFirstTextData();
+    }
+
 }
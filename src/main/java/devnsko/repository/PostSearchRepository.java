@@ -0,0 +1,19 @@
+package devnsko.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import devnsko.model.PostSearchModel;
+
+@Repository
+public interface PostSearchRepository extends JpaRepository<PostSearchModel, Integer> {
+
+    @Query("select s.postId from PostSearchModel s where s.postId in :postIds")
+    List<Integer> findIndexedIds(@Param("postIds") Collection<Integer> postIds);
+
+}
@@ -0,0 +1,15 @@
+package devnsko.response;
+
+/**
+ * A post's {@code GET /posts/{id}} response body, already serialized, together with its
+ * strong ETag. {@code gzipBody} is the same body gzip-compressed, or {@code null} when the body
+ * is below the compression threshold. Treat both arrays as read-only: they are shared by every
+ * request.
+ */
+public record RenderedPost(byte[] body, byte[] gzipBody, String etag) {
+
+    /** ETag of the gzip representation; it differs from the identity one as RFC 9110 requires. */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
@@ -3,16 +3,24 @@ package devnsko.response;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public record ServerResponse(String message, Object body) {
+public record ServerResponse(String message, Object body, String nextCursor) {
     public static ServerResponse ok(Object body) {
-        return new ServerResponse("Success", body);
+        return new ServerResponse("Success", body, null);
+    }
+
+    /**
+     * Success response for one page of a keyset-paginated listing. {@code nextCursor} is
+     * {@code null} (and therefore omitted) on the last page.
+     */
+    public static ServerResponse ok(Object body, String nextCursor) {
+        return new ServerResponse("Success", body, nextCursor);
     }
 
     public static ServerResponse ok() {
-        return new ServerResponse("Success", null);
+        return new ServerResponse("Success", null, null);
     }
 
     public static ServerResponse error(String message) {
-        return new ServerResponse(message, null);
+        return new ServerResponse(message, null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package devnsko.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Engines mark matches with two control characters, which cannot appear in escaped HTML;
+ * {@link #toHtml} escapes the fragment and only then turns the markers into {@code <mark>} tags.
+ */
+final class Highlights {
+
+    static final String START = "\u0002";
+    static final String STOP = "\u0003";
+
+    private Highlights() {
+    }
+
+    static String toHtml(String marked) {
+        if (marked == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(marked).replace(START, "<mark>").replace(STOP, "</mark>");
+    }
+}
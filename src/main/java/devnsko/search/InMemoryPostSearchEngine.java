@@ -0,0 +1,166 @@
+package devnsko.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import devnsko.dto.SearchHit;
+
+/**
+ * In-process inverted index (term -> post -> term frequency) ranked by TF-IDF. Needs no
+ * database support, so it works on H2 and in tests; it is rebuilt from the database on every
+ * start and holds all indexed text on the heap.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory")
+public class InMemoryPostSearchEngine implements PostSearchEngine {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}_]+");
+    private static final int HIGHLIGHT_RADIUS = 80;
+
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<Integer, IndexedPost> posts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record IndexedPost(String title, String text, Set<String> terms) {
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String term : terms) {
+                Map<Integer, Integer> termPostings = postings.getOrDefault(term, Map.of());
+                double idf = Math.log(1.0 + (double) posts.size() / (1 + termPostings.size()));
+                Map<Integer, Double> next = new HashMap<>();
+                termPostings.forEach((postId, tf) -> {
+                    if (!next.containsKey(postId)) {
+                        next.put(postId, (1 + Math.log(tf)) * idf);
+                    }
+                });
+                if (scores == null) {
+                    scores = next;
+                } else {
+                    // AND semantics: keep posts that also contain this term
+                    Map<Integer, Double> previous = scores;
+                    next.keySet().retainAll(previous.keySet());
+                    next.replaceAll((postId, score) -> score + previous.get(postId));
+                    scores = next;
+                }
+            }
+            return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(hit -> {
+                    IndexedPost post = posts.get(hit.getKey());
+                    return new SearchHit(hit.getKey(), post.title(), hit.getValue(),
+                        Highlights.toHtml(highlight(post, terms)));
+                })
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Collection<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : documents) {
+                remove(document.postId());
+                String fullText = document.fullText();
+                Map<String, Integer> frequencies = new HashMap<>();
+                tokenize(fullText).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+                frequencies.forEach((term, tf) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.postId(), tf));
+                posts.put(document.postId(), new IndexedPost(document.title(), fullText, frequencies.keySet()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Integer> unindexed(Collection<Integer> postIds) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> missing = new HashSet<>(postIds);
+            missing.removeAll(posts.keySet());
+            return missing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Integer postId) {
+        IndexedPost previous = posts.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Integer, Integer> termPostings = postings.get(term);
+            termPostings.remove(postId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * A window of text around the first match, with every matching token between markers.
+     */
+    private static String highlight(IndexedPost post, Set<String> terms) {
+        String text = post.text();
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            if (terms.contains(matcher.group().toLowerCase(Locale.ROOT))) {
+                matches.add(new int[] { matcher.start(), matcher.end() });
+            }
+        }
+        if (matches.isEmpty()) {
+            return text.length() <= 2 * HIGHLIGHT_RADIUS ? text : text.substring(0, 2 * HIGHLIGHT_RADIUS);
+        }
+        int from = Math.max(0, matches.get(0)[0] - HIGHLIGHT_RADIUS);
+        int to = Math.min(text.length(), matches.get(0)[1] + HIGHLIGHT_RADIUS);
+        StringBuilder marked = new StringBuilder();
+        int position = from;
+        for (int[] match : matches.stream().filter(m -> m[0] >= from && m[1] <= to)
+                .sorted(Comparator.comparingInt(m -> m[0])).toList()) {
+            marked.append(text, position, match[0])
+                .append(Highlights.START).append(text, match[0], match[1]).append(Highlights.STOP);
+            position = match[1];
+        }
+        return marked.append(text, position, to).toString();
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text == null ? "" : text);
+        while (matcher.find()) {
+            tokens.add(matcher.group().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,29 @@
+package devnsko.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import devnsko.dto.SearchHit;
+
+/**
+ * Full-text search over posts. Selected with {@code search.engine}: {@code postgres}
+ * (tsvector + GIN, the default) or {@code memory} (in-process inverted index, for H2 and
+ * local runs).
+ */
+public interface PostSearchEngine {
+
+    /**
+     * Best matches first. A post matches when it contains every term of the query.
+     */
+    List<SearchHit> search(String query, int offset, int limit);
+
+    /**
+     * Adds or replaces the documents of the given posts. Called inside a transaction.
+     */
+    void index(Collection<SearchDocument> documents);
+
+    /**
+     * The subset of {@code postIds} this engine has no document for yet.
+     */
+    Collection<Integer> unindexed(Collection<Integer> postIds);
+}
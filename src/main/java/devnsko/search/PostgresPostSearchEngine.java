@@ -0,0 +1,85 @@
+package devnsko.search;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import devnsko.dto.SearchHit;
+import devnsko.model.PostSearchModel;
+import devnsko.repository.PostSearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Search on PostgreSQL's text search: {@code websearch_to_tsquery} against the GIN-indexed
+ * {@code post_search.search_vector}, ranked with {@code ts_rank} and highlighted with
+ * {@code ts_headline}. Requires {@code db/postgresql/003-post-search.sql}.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresPostSearchEngine implements PostSearchEngine {
+
+    private static final String SEARCH_SQL = """
+            select p.id, p.title, ts_rank(s.search_vector, q) as score,
+                   ts_headline('simple', s.document, q,
+                               'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MaxWords=30, MinWords=10')
+            from post_search s
+            join posts p on p.id = s.post_id,
+                 websearch_to_tsquery('simple', :query) q
+            where s.search_vector @@ q
+            order by score desc, p.id
+            limit :limit offset :offset
+            """;
+
+    private final PostSearchRepository postSearchRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(SEARCH_SQL)
+            .setParameter("query", query)
+            .setParameter("limit", limit)
+            .setParameter("offset", offset)
+            .getResultList();
+        return rows.stream()
+            .map(row -> new SearchHit(
+                ((Number) row[0]).intValue(),
+                (String) row[1],
+                ((Number) row[2]).doubleValue(),
+                Highlights.toHtml((String) row[3])))
+            .toList();
+    }
+
+    @Override
+    public void index(Collection<SearchDocument> documents) {
+        Map<Integer, PostSearchModel> existing = postSearchRepository
+            .findAllById(documents.stream().map(SearchDocument::postId).toList())
+            .stream()
+            .collect(Collectors.toMap(PostSearchModel::getPostId, Function.identity()));
+        List<PostSearchModel> rows = documents.stream().map(document -> {
+            PostSearchModel row = existing.getOrDefault(document.postId(), new PostSearchModel(document.postId()));
+            row.setDocument(document.fullText());
+            return row;
+        }).toList();
+        postSearchRepository.saveAll(rows);
+    }
+
+    @Override
+    public Collection<Integer> unindexed(Collection<Integer> postIds) {
+        Set<Integer> missing = new HashSet<>(postIds);
+        postSearchRepository.findIndexedIds(postIds).forEach(missing::remove);
+        return missing;
+    }
+}
@@ -0,0 +1,13 @@
+package devnsko.search;
+
+/**
+ * What a search engine indexes for one post: its title and the concatenated text of its
+ * TEXT, CODE and QUOTE blocks.
+ */
+public record SearchDocument(Integer postId, String title, String text) {
+
+    public String fullText() {
+        String safeTitle = title == null ? "" : title;
+        return text.isEmpty() ? safeTitle : safeTitle + "\n" + text;
+    }
+}
@@ -0,0 +1,83 @@
+package devnsko.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import devnsko.event.PostsChangedEvent;
+import devnsko.model.PostModel;
+import devnsko.repository.PostRepository;
+import devnsko.service.BlockDataCodec;
+import devnsko.service.IdBatches;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the active {@link PostSearchEngine} in sync with posts: re-indexes changed posts after
+ * their transaction commits, and on startup indexes every post the engine doesn't know yet.
+ * Both run off the request thread.
+ */
+@Slf4j
+@Component
+public class SearchIndexer {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    private final PostSearchEngine searchEngine;
+    private final PostRepository postRepository;
+    private final BlockDataCodec blockDataCodec;
+    private final TransactionTemplate transactionTemplate;
+
+    public SearchIndexer(PostSearchEngine searchEngine, PostRepository postRepository,
+                         BlockDataCodec blockDataCodec, PlatformTransactionManager transactionManager) {
+        this.searchEngine = searchEngine;
+        this.postRepository = postRepository;
+        this.blockDataCodec = blockDataCodec;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsChanged(PostsChangedEvent event) {
+        reindex(event.postIds());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int indexed = IdBatches.forEach(BACKFILL_BATCH, postRepository::findIdsAfter, ids -> {
+            Collection<Integer> missing = searchEngine.unindexed(ids);
+            if (!missing.isEmpty()) {
+                reindex(missing);
+            }
+            return missing.size();
+        });
+        log.info("Search backfill indexed {} posts", indexed);
+    }
+
+    public void reindex(Collection<Integer> postIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SearchDocument> documents = postRepository.findWithBlocksByIdInOrderByIdAsc(postIds).stream()
+                .map(this::toDocument)
+                .toList();
+            searchEngine.index(documents);
+        });
+    }
+
+    private SearchDocument toDocument(PostModel post) {
+        List<String> texts = new ArrayList<>();
+        post.getBlocks().forEach(block -> texts.add(
+            blockDataCodec.read(block.getType(), block.getData()).searchableText()));
+        String text = texts.stream().filter(Objects::nonNull).collect(Collectors.joining("\n"));
+        return new SearchDocument(post.getId(), post.getTitle(), text);
+    }
+}
@@ -11,15 +11,28 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import devnsko.exception.CustomException;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import java.io.IOException;
 
 public class JwtTokenFilter extends OncePerRequestFilter {
 
   private final JwtTokenProvider jwtTokenProvider;
+  private final Timer authenticationTimer;
+  private final Counter authenticated;
+  private final Counter rejected;
 
-  public JwtTokenFilter(JwtTokenProvider jwtTokenProvider) {
+  public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, MeterRegistry meterRegistry) {
     this.jwtTokenProvider = jwtTokenProvider;
+    // Token verification plus principal lookup, for requests that carry a bearer token
+    this.authenticationTimer = Timer.builder("jwt.filter.authentication")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.authenticated = Counter.builder("jwt.filter.requests").tag("outcome", "authenticated").register(meterRegistry);
+    this.rejected = Counter.builder("jwt.filter.requests").tag("outcome", "rejected").register(meterRegistry);
   }
 
   @Override
@@ -28,11 +41,18 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
     String token = jwtTokenProvider.resolveToken(httpServletRequest);
     try {
-      if (token != null && jwtTokenProvider.validateToken(token)) {
-        Authentication auth = jwtTokenProvider.getAuthentication(token);
+      if (token != null) {
+        Timer.Sample sample = Timer.start();
+        // Verify once; the claims are reused downstream through the request attribute
+        Claims claims = jwtTokenProvider.parseClaims(token);
+        httpServletRequest.setAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE, claims);
+        Authentication auth = jwtTokenProvider.getAuthentication(claims);
         SecurityContextHolder.getContext().setAuthentication(auth);
+        sample.stop(authenticationTimer);
+        authenticated.increment();
       }
     } catch (CustomException ex) {
+      rejected.increment();
       //this is very important, since it guarantees the user is not authenticated at all
       SecurityContextHolder.clearContext();
       httpServletResponse.sendError(ex.getHttpStatus().value(), ex.getMessage());
@@ -5,17 +5,21 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 public class JwtTokenFilterConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
   private final JwtTokenProvider jwtTokenProvider;
+  private final MeterRegistry meterRegistry;
 
-  public JwtTokenFilterConfigurer(JwtTokenProvider jwtTokenProvider) {
+  public JwtTokenFilterConfigurer(JwtTokenProvider jwtTokenProvider, MeterRegistry meterRegistry) {
     this.jwtTokenProvider = jwtTokenProvider;
+    this.meterRegistry = meterRegistry;
   }
 
   @Override
   public void configure(HttpSecurity http) throws Exception {
-    JwtTokenFilter customFilter = new JwtTokenFilter(jwtTokenProvider);
+    JwtTokenFilter customFilter = new JwtTokenFilter(jwtTokenProvider, meterRegistry);
     http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
   }
 
@@ -1,9 +1,14 @@
 package devnsko.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import jakarta.annotation.PostConstruct;
@@ -18,16 +23,26 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import devnsko.exception.CustomException;
 import devnsko.model.AppUserRole;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Component
 public class JwtTokenProvider {
 
+  /** Request attribute holding the {@link Claims} verified by {@link JwtTokenFilter}. */
+  public static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".claims";
+
   /**
    * THIS IS NOT A SECURE PRACTICE! For simplicity, we are storing a static key here. Ideally, in a
    * microservices environment, this key would be kept on a config-server.
@@ -38,12 +53,61 @@ public class JwtTokenProvider {
   @Value("${security.jwt.token.expire-length:3600000}")
   private long validityInMilliseconds = 3600000; // 1h
 
+  /**
+   * When true, the principal is built from the verified token's subject and {@code auth} claim
+   * alone, with no database access. A deleted user then keeps access until the token expires.
+   */
+  @Value("${security.jwt.claims-principal:false}")
+  private boolean claimsPrincipal;
+
+  @Value("${security.jwt.verified-cache.maximum-size:10000}")
+  private long verifiedCacheMaximumSize;
+
   @Autowired
   private MyUserDetails myUserDetails;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /** Signature and expiry checks that missed {@link #verifiedTokens}. */
+  private Timer verificationTimer;
+
+  /**
+   * Claims of recently verified tokens keyed by the token's SHA-256 digest. Each entry expires
+   * with its token, so a hit never outlives the {@code exp} claim.
+   */
+  private Cache<String, Claims> verifiedTokens;
+
   @PostConstruct
   protected void init() {
     secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
+    verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheMaximumSize)
+        .expireAfter(new Expiry<String, Claims>() {
+          @Override
+          public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration() == null
+                ? validityInMilliseconds
+                : claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+          }
+
+          @Override
+          public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    // Same tag keys as the Spring caches' meters; Prometheus rejects a name whose tag keys differ
+    CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens",
+        "cache.manager", "jwtTokenProvider", "name", "jwtVerifiedTokens");
+    verificationTimer = Timer.builder("jwt.verification").publishPercentileHistogram().register(meterRegistry);
   }
 
   public String createToken(String username, List<AppUserRole> appUserRoles) {
@@ -63,12 +127,46 @@ public class JwtTokenProvider {
   }
 
   public Authentication getAuthentication(String token) {
-    UserDetails userDetails = myUserDetails.loadUserByUsername(getUsername(token));
+    return getAuthentication(parseClaims(token));
+  }
+
+  public Authentication getAuthentication(Claims claims) {
+    UserDetails userDetails = claimsPrincipal
+        ? principalFromClaims(claims)
+        : myUserDetails.loadPrincipal(claims.getSubject());
     return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
   }
 
+  private UserDetails principalFromClaims(Claims claims) {
+    // createToken serializes each SimpleGrantedAuthority as {"authority": "ROLE_..."}
+    List<?> auth = claims.get("auth", List.class);
+    List<SimpleGrantedAuthority> authorities = auth == null ? List.of() : auth.stream()
+        .filter(Map.class::isInstance)
+        .map(a -> ((Map<?, ?>) a).get("authority"))
+        .filter(Objects::nonNull)
+        .map(a -> new SimpleGrantedAuthority(a.toString()))
+        .collect(Collectors.toList());
+    return org.springframework.security.core.userdetails.User//
+        .withUsername(claims.getSubject())//
+        .password("")//
+        .authorities(authorities)//
+        .build();
+  }
+
   public String getUsername(String token) {
-    return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody().getSubject();
+    return parseClaims(token).getSubject();
+  }
+
+  /**
+   * Claims for the current request: the ones {@link JwtTokenFilter} already verified when
+   * available, otherwise parsed from the request's bearer token.
+   */
+  public Claims resolveClaims(HttpServletRequest req) {
+    Object claims = req.getAttribute(CLAIMS_ATTRIBUTE);
+    if (claims instanceof Claims verified) {
+      return verified;
+    }
+    return parseClaims(resolveToken(req));
   }
 
   public String resolveToken(HttpServletRequest req) {
@@ -80,11 +178,41 @@ public class JwtTokenProvider {
   }
 
   public boolean validateToken(String token) {
+    parseClaims(token);
+    return true;
+  }
+
+  /**
+   * Verifies the token's signature and expiry and returns its claims. Tokens verified before
+   * are answered from the cache without another HMAC computation.
+   */
+  public Claims parseClaims(String token) {
+    if (token == null) {
+      throw new CustomException("Expired or invalid JWT token", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+    String digest = digest(token);
+    Claims cached = verifiedTokens.getIfPresent(digest);
+    if (cached != null) {
+      return cached;
+    }
+    Timer.Sample sample = Timer.start();
     try {
-      Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token);
-      return true;
+      Claims claims = Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody();
+      verifiedTokens.put(digest, claims);
+      return claims;
     } catch (JwtException | IllegalArgumentException e) {
       throw new CustomException("Expired or invalid JWT token", HttpStatus.INTERNAL_SERVER_ERROR);
+    } finally {
+      sample.stop(verificationTimer);
+    }
+  }
+
+  private static String digest(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
     }
   }
 
@@ -0,0 +1,99 @@
+package devnsko.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets in front of sign-in, one per client IP and one per username. The username
+ * bucket slows down guessing against a single account from many addresses; the IP bucket caps
+ * what a single client can make the server hash. Idle buckets are dropped after
+ * {@code idle-expiry}, by which time they would have refilled anyway.
+ */
+@Component
+public class LoginRateLimiter {
+
+  @Value("${security.signin.rate-limit.ip.capacity:20}")
+  private int ipCapacity;
+
+  @Value("${security.signin.rate-limit.ip.refill-per-minute:20}")
+  private int ipRefillPerMinute;
+
+  @Value("${security.signin.rate-limit.username.capacity:5}")
+  private int usernameCapacity;
+
+  @Value("${security.signin.rate-limit.username.refill-per-minute:5}")
+  private int usernameRefillPerMinute;
+
+  @Value("${security.signin.rate-limit.idle-expiry:10m}")
+  private Duration idleExpiry;
+
+  private Cache<String, TokenBucket> ipBuckets;
+  private Cache<String, TokenBucket> usernameBuckets;
+
+  @PostConstruct
+  protected void init() {
+    ipBuckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(idleExpiry).build();
+    usernameBuckets = Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(idleExpiry).build();
+  }
+
+  /**
+   * Takes one token from the caller's IP bucket and, only if that succeeds, one from the
+   * username's bucket, so a client that is already throttled cannot drain someone else's
+   * account bucket and lock them out.
+   *
+   * @return false when either bucket is empty and the attempt should be refused
+   */
+  public boolean tryAcquire(String clientIp, String username) {
+    boolean ipAllowed = ipBuckets
+        .get(String.valueOf(clientIp), key -> new TokenBucket(ipCapacity, ipRefillPerMinute))
+        .tryConsume();
+    if (!ipAllowed) {
+      return false;
+    }
+    return usernameBuckets
+        .get(String.valueOf(username), key -> new TokenBucket(usernameCapacity, usernameRefillPerMinute))
+        .tryConsume();
+  }
+
+  private static final class TokenBucket {
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, int refillPerMinute) {
+      this.capacity = capacity;
+      this.refillPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+      this.tokens = capacity;
+      this.lastRefill = System.nanoTime();
+    }
+
+    boolean tryConsume() {
+      lock.lock();
+      try {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+          return false;
+        }
+        tokens -= 1;
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+}
@@ -2,17 +2,20 @@ package devnsko.security;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import devnsko.config.CacheConfig;
 import devnsko.model.AppUser;
 import devnsko.repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
-public class MyUserDetails implements UserDetailsService {
+public class MyUserDetails implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
 
@@ -35,4 +38,35 @@ public class MyUserDetails implements UserDetailsService {
         .build();
   }
 
+  /**
+   * Called by the authentication provider after a successful sign-in whose stored hash is
+   * weaker than the current encoder settings, with the password re-hashed at the new cost.
+   */
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    AppUser appUser = userRepository.findByUsername(user.getUsername());
+    if (appUser != null) {
+      appUser.setPassword(newPassword);
+      userRepository.save(appUser);
+    }
+    return org.springframework.security.core.userdetails.User//
+        .withUserDetails(user)//
+        .password(newPassword)//
+        .build();
+  }
+
+  /**
+   * Principal for an already verified JWT: same lookup as {@link #loadUserByUsername} but
+   * without the password hash, and cached for {@code security.jwt.principal-cache.ttl} so
+   * authenticated requests don't each cost a user and a roles query.
+   */
+  @Cacheable(cacheNames = CacheConfig.PRINCIPALS)
+  public UserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+    UserDetails userDetails = loadUserByUsername(username);
+    return org.springframework.security.core.userdetails.User//
+        .withUserDetails(userDetails)//
+        .password("")//
+        .build();
+  }
+
 }
@@ -0,0 +1,81 @@
+package devnsko.security;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import devnsko.config.BoundedExecutors;
+import devnsko.exception.CustomException;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) on its own small, bounded pool. However many
+ * sign-ins arrive at once, at most {@code threads} cores are spent hashing; once
+ * {@code queueCapacity} hashes are waiting, further attempts are refused with 503 instead of
+ * queueing without bound and starving other requests.
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMillis;
+
+  public OffloadedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+    this.delegate = delegate;
+    this.timeoutMillis = timeoutMillis;
+    this.executor = BoundedExecutors.newFixed("password-hashing", threads, queueCapacity);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return offload(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return offload(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    // Only inspects the hash prefix; cheap enough for the calling thread
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T offload(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      throw new CustomException("Too many authentication requests, try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    try {
+      return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new CustomException("Too many authentication requests, try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new IllegalStateException("Interrupted while hashing password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+}
@@ -1,8 +1,12 @@
 package devnsko.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,12 +25,28 @@ import org.springframework.security.web.SecurityFilterChain;
 public class WebSecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
+
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.timeout-ms:5000}")
+    private long hashingTimeoutMillis;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches (streamed responses) only follow an already authorized request;
+                        // error dispatches render the status of one, e.g. the 404/409 of a CustomException
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/users/signin",
                                 "/users/signup",
@@ -35,18 +55,27 @@ public class WebSecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-resources/**",
                                 "/configuration/**",
-                                "/webjars/**"
+                                "/webjars/**",
+                                // Scrape endpoints; keep the port off the public network
+                                "/actuator/health",
+                                "/actuator/prometheus"
                         ).permitAll()
+                        // Media bytes are embedded in posts; their URLs carry a random key, not the id
+                        .requestMatchers(HttpMethod.GET, "/media/*").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exception -> exception.accessDeniedPage("/login"));
-        http.addFilterBefore(new JwtTokenFilter(jwtTokenProvider), org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new JwtTokenFilter(jwtTokenProvider, meterRegistry), org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        // Stored hashes below bcrypt-strength are re-hashed on the next successful sign-in
+        // (see MyUserDetails#updatePassword), so the cost can be changed without a lockout
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new OffloadedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                threads, hashingQueueCapacity, hashingTimeoutMillis);
     }
 
     @Bean
@@ -0,0 +1,60 @@
+package devnsko.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import devnsko.dto.block.BlockData;
+import devnsko.exception.CustomException;
+import devnsko.type.PostBlockType;
+
+/**
+ * Converts typed block payloads to and from the JSON stored in {@code post_blocks.data}.
+ * Readers and writers are built once per {@link PostBlockType} from the application's
+ * {@link ObjectMapper}, so their serializer lookups are resolved once rather than per block.
+ */
+@Component
+public class BlockDataCodec {
+
+    private final Map<PostBlockType, ObjectWriter> writers = new EnumMap<>(PostBlockType.class);
+    private final Map<PostBlockType, ObjectReader> readers = new EnumMap<>(PostBlockType.class);
+
+    public BlockDataCodec(ObjectMapper objectMapper) {
+        for (PostBlockType type : PostBlockType.values()) {
+            writers.put(type, objectMapper.writerFor(type.getDataType()));
+            readers.put(type, objectMapper.readerFor(type.getDataType()));
+        }
+    }
+
+    public String write(PostBlockType type, BlockData data) {
+        if (!type.getDataType().isInstance(data)) {
+            throw new IllegalArgumentException("Expected " + type.getDataType().getSimpleName() + " for " + type);
+        }
+        String mediaUrl = data.mediaUrl();
+        if (mediaUrl != null && mediaUrl.regionMatches(true, 0, "data:", 0, 5)) {
+            // Base64 payloads would bloat post_blocks rows and every cached post body
+            throw new CustomException("Inline media is not accepted; upload it to POST /media and set mediaId",
+                HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return writers.get(type).writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize block data", e);
+        }
+    }
+
+    public BlockData read(PostBlockType type, String json) {
+        try {
+            return readers.get(type).readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored " + type + " block data is not valid JSON", e);
+        }
+    }
+}
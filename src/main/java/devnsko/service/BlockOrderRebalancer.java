@@ -0,0 +1,134 @@
+package devnsko.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import devnsko.config.CacheConfig;
+import devnsko.model.PostBlockModel;
+import devnsko.repository.PostBlockRepository;
+import devnsko.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rewrites a post's block order keys as short, evenly spaced keys in the same order. Runs in
+ * the background for posts whose keys have grown past {@code posts.order-key.rebalance-length}
+ * through repeated inserts at one spot. Posts are queued in memory by the instance that served
+ * the PATCH; a queue lost to a restart costs nothing but long keys, and the next PATCH that
+ * lengthens one queues the post again. Blocks written before order keys existed are never
+ * touched: their order is only known to {@code db/postgresql/004-block-order-keys.sql}.
+ */
+@Slf4j
+@Component
+public class BlockOrderRebalancer {
+
+    private final PostRepository postRepository;
+    private final PostBlockRepository postBlockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    /** Posts PATCH gave a long key since the last run. Per instance; see {@link #keyWritten}. */
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${posts.order-key.rebalance-length:16}")
+    private int rebalanceLength;
+
+    @Value("${posts.order-key.rebalance-batch-size:100}")
+    private int batchSize;
+
+    public BlockOrderRebalancer(PostRepository postRepository, PostBlockRepository postBlockRepository,
+                                PlatformTransactionManager transactionManager, CacheManager cacheManager) {
+        this.postRepository = postRepository;
+        this.postBlockRepository = postBlockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Queues the post for the next run if {@code orderKey}, just written by PATCH, is longer than
+     * {@code rebalance-length}. Keys only grow through PATCH, so this replaces scanning
+     * {@code post_blocks} for long keys, which no index can answer.
+     */
+    public void keyWritten(Integer postId, String orderKey) {
+        if (orderKey.length() > rebalanceLength) {
+            pending.add(postId);
+        }
+    }
+
+    /** Handles up to {@code rebalance-batch-size} queued posts per run; the rest wait for the next one. */
+    @Scheduled(fixedDelayString = "${posts.order-key.rebalance-interval-ms:600000}")
+    public void rebalanceLongKeys() {
+        List<Integer> postIds = pending.stream().limit(batchSize).toList();
+        // Dequeued before the work, so a PATCH that lengthens a key meanwhile queues the post again
+        pending.removeAll(postIds);
+        int rebalanced = 0;
+        for (Integer postId : postIds) {
+            // One short transaction per post; the row lock keeps PATCH requests out meanwhile
+            Boolean changed = transactionTemplate.execute(status -> {
+                if (postRepository.findLockedById(postId).isEmpty()) {
+                    return false;
+                }
+                List<PostBlockModel> blocks = postBlockRepository.findForRebalance(postId);
+                // The patch may have rolled back, or PATCH rebalanced the post itself
+                if (blocks.stream().noneMatch(block -> block.getOrderKey() != null
+                        && block.getOrderKey().length() > rebalanceLength)) {
+                    return false;
+                }
+                spread(postId, blocks);
+                return true;
+            });
+            if (Boolean.TRUE.equals(changed)) {
+                evict(postId);
+                rebalanced++;
+            }
+        }
+        if (rebalanced > 0) {
+            clear(CacheConfig.POST_PAGES);
+            clear(CacheConfig.POST_SUMMARIES);
+            log.info("Rebalanced block order keys of {} posts", rebalanced);
+        }
+    }
+
+    /**
+     * Rebalances one post inside the caller's transaction, which must already hold the post's
+     * row lock. The new keys are written by dirty checking, so they go out as JDBC batches.
+     */
+    public void rebalance(Integer postId) {
+        spread(postId, postBlockRepository.findForRebalance(postId));
+    }
+
+    private void spread(Integer postId, List<PostBlockModel> blocks) {
+        if (blocks.stream().anyMatch(block -> block.getOrderKey() == null)) {
+            // Spreading them in any order we can see here would lose their order_index order for good
+            throw new IllegalStateException("Post " + postId + " has blocks without order keys; "
+                + "run db/postgresql/004-block-order-keys.sql first");
+        }
+        Iterator<String> keys = OrderKeys.spread(blocks.size()).iterator();
+        blocks.forEach(block -> block.setOrderKey(keys.next()));
+        postBlockRepository.flush();
+    }
+
+    // Order is unchanged, but the cached post is dropped rather than trusted. Its bodies are
+    // keyed by version, which a rebalance leaves alone, and none of them contains an order key
+    private void evict(Integer postId) {
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS);
+        if (cache != null) {
+            cache.evict(postId);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
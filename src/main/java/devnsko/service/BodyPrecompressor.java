@@ -0,0 +1,47 @@
+package devnsko.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import devnsko.response.RenderedPost;
+
+/**
+ * Gzips cached response bodies once, when they are built, with the same switch and threshold the
+ * server applies to everything else ({@code server.compression.*}).
+ */
+@Component
+public class BodyPrecompressor {
+
+    @Value("${server.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize compressionThreshold;
+
+    /** The body with its ETag, plus a gzipped copy when compression is on and the body is large enough. */
+    public RenderedPost precompress(byte[] body, String etag) {
+        byte[] gzipBody = compressionEnabled && body.length >= compressionThreshold.toBytes() ? gzip(body) : null;
+        return new RenderedPost(body, gzipBody, etag);
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        // Paid once per post version, so spend the CPU on the smallest output
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress response body", e);
+        }
+        return out.toByteArray();
+    }
+}
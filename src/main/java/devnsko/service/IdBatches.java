@@ -0,0 +1,39 @@
+package devnsko.service;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Walks ids in ascending batches by keyset ({@code id > afterId}), as the startup backfills do,
+ * so no batch query has to skip over the rows already seen.
+ */
+public final class IdBatches {
+
+    private IdBatches() {
+    }
+
+    /**
+     * Hands each batch returned by {@code nextBatch(afterId, limit)} to {@code handler} until a
+     * batch comes back short.
+     *
+     * @return the sum of what {@code handler} returned, e.g. the number of rows it processed
+     */
+    public static int forEach(int batchSize, BiFunction<Integer, Limit, List<Integer>> nextBatch,
+                              ToIntFunction<List<Integer>> handler) {
+        int afterId = 0;
+        int handled = 0;
+        List<Integer> ids;
+        do {
+            ids = nextBatch.apply(afterId, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            handled += handler.applyAsInt(ids);
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        return handled;
+    }
+}
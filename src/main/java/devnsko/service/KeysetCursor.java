@@ -0,0 +1,43 @@
+package devnsko.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+
+import devnsko.exception.CustomException;
+
+/**
+ * Encodes the last seen post id into the opaque cursor handed out to clients, so the
+ * keyset position can change shape later without breaking the API.
+ */
+public final class KeysetCursor {
+
+    private static final String PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id to continue after, {@code 0} for a {@code null}/blank cursor (first page)
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(raw);
+            }
+            return Integer.parseInt(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package devnsko.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import devnsko.dto.MediaResponse;
+import devnsko.event.MediaUploadedEvent;
+import devnsko.exception.CustomException;
+import devnsko.media.BlobStore;
+import devnsko.model.MediaModel;
+import devnsko.model.MediaVariant;
+import devnsko.repository.MediaRepository;
+import devnsko.type.MediaStatus;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Uploads and serving of IMAGE/VIDEO block media. Uploads stream from the request straight into
+ * the {@link BlobStore}, outside any transaction, so a slow client never holds a database
+ * connection; only the metadata row is written transactionally afterwards.
+ */
+@Slf4j
+@Service
+@Timed(value = "blog.service", histogram = true)
+public class MediaService {
+
+    public static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/webp");
+    public static final Set<String> VIDEO_TYPES = Set.of("video/mp4", "video/webm");
+
+    private final BlobStore blobStore;
+    private final MediaRepository mediaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${media.max-size:50MB}")
+    private DataSize maxSize;
+
+    public MediaService(BlobStore blobStore, MediaRepository mediaRepository,
+                        ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.blobStore = blobStore;
+        this.mediaRepository = mediaRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A stored blob chosen to answer a request: the original or one of its variants.
+     * {@code immutable} is false only while a better match for the request may still be generated.
+     */
+    public record MediaBlob(String storageKey, String contentType, long size, String etag, boolean immutable) {
+    }
+
+    public MediaModel upload(String contentType, long contentLength, InputStream body) {
+        String type = acceptedType(contentType);
+        if (contentLength > maxSize.toBytes()) {
+            throw new CustomException("Media is larger than " + maxSize.toBytes() + " bytes", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        String storageKey = "originals/" + UUID.randomUUID();
+        long size;
+        try {
+            size = blobStore.write(storageKey, Channels.newChannel(body), maxSize.toBytes());
+        } catch (IOException e) {
+            throw new CustomException("Upload failed: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        if (size == 0) {
+            deleteQuietly(storageKey);
+            throw new CustomException("The upload is empty", HttpStatus.BAD_REQUEST);
+        }
+        boolean image = IMAGE_TYPES.contains(type);
+        MediaModel media = new MediaModel();
+        media.setContentType(type);
+        media.setStorageKey(storageKey);
+        media.setPublicKey(UUID.randomUUID().toString());
+        media.setSize(size);
+        media.setStatus(image ? MediaStatus.PROCESSING : MediaStatus.READY);
+        media.setCreatedAt(Instant.now());
+        try {
+            MediaModel saved = transactionTemplate.execute(status -> {
+                MediaModel created = mediaRepository.save(media);
+                if (image) {
+                    eventPublisher.publishEvent(new MediaUploadedEvent(created.getId()));
+                }
+                return created;
+            });
+            log.debug("Stored media id={} type={} size={}", saved.getId(), type, size);
+            return saved;
+        } catch (RuntimeException e) {
+            deleteQuietly(storageKey);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public MediaModel get(Integer id) {
+        return mediaRepository.findById(id)
+            .orElseThrow(() -> new CustomException("The media doesn't exist", HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Public URL of each given upload, by id, read in one query. Ids that don't exist are refused.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, String> publicUrls(Collection<Integer> ids) {
+        Map<Integer, String> urls = mediaRepository.findAllById(new HashSet<>(ids)).stream()
+            .collect(Collectors.toMap(MediaModel::getId, media -> MediaResponse.url(media.getPublicKey())));
+        for (Integer id : ids) {
+            if (!urls.containsKey(id)) {
+                throw new CustomException("Media " + id + " doesn't exist", HttpStatus.BAD_REQUEST);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * The narrowest variant at least {@code width} pixels wide, or the original when there is
+     * none (no width asked for, variants not generated yet, or the original is smaller).
+     */
+    @Transactional(readOnly = true)
+    public MediaBlob resolve(String publicKey, Integer width) {
+        MediaModel media = mediaRepository.findByPublicKey(publicKey)
+            .orElseThrow(() -> new CustomException("The media doesn't exist", HttpStatus.NOT_FOUND));
+        if (width != null) {
+            for (MediaVariant variant : media.getVariants()) {
+                if (variant.getWidth() >= width) {
+                    return new MediaBlob(variant.getStorageKey(), variant.getContentType(), variant.getSize(),
+                        etag(variant.getStorageKey()), true);
+                }
+            }
+        }
+        // Until its variants exist, ?w= is answered with the original and may later get a variant
+        boolean immutable = width == null || media.getStatus() != MediaStatus.PROCESSING;
+        return new MediaBlob(media.getStorageKey(), media.getContentType(), media.getSize(),
+            etag(media.getStorageKey()), immutable);
+    }
+
+    public long transferTo(MediaBlob blob, long position, long count, WritableByteChannel target) throws IOException {
+        return blobStore.transferTo(blob.storageKey(), position, count, target);
+    }
+
+    /** The blob's local file, or {@code null} when the blob store keeps none. */
+    public Path file(MediaBlob blob) {
+        return blobStore.file(blob.storageKey());
+    }
+
+    private String acceptedType(String contentType) {
+        if (contentType == null) {
+            throw new CustomException("Content-Type is required", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        String type;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            type = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+        } catch (InvalidMediaTypeException e) {
+            throw new CustomException("Invalid Content-Type", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        if (!IMAGE_TYPES.contains(type) && !VIDEO_TYPES.contains(type)) {
+            throw new CustomException("Unsupported media type " + type, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        return type;
+    }
+
+    private void deleteQuietly(String storageKey) {
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete orphaned blob {}", storageKey, e);
+        }
+    }
+
+    // Keys never change content, so the key identifies the representation
+    private static String etag(String storageKey) {
+        return "\"" + storageKey.substring(storageKey.lastIndexOf('/') + 1) + "\"";
+    }
+}
@@ -0,0 +1,183 @@
+package devnsko.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import devnsko.config.BoundedExecutors;
+import devnsko.event.MediaUploadedEvent;
+import devnsko.media.BlobStore;
+import devnsko.model.MediaModel;
+import devnsko.model.MediaVariant;
+import devnsko.repository.MediaRepository;
+import devnsko.type.MediaStatus;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates resized copies of uploaded images on its own small, bounded pool, so decoding and
+ * scaling never compete with request threads for more than {@code media.image.threads} cores.
+ * Images whose format ImageIO cannot read (WebP) or that exceed {@code media.image.max-pixels}
+ * keep only their original.
+ */
+@Slf4j
+@Component
+public class MediaVariantGenerator implements DisposableBean {
+
+    private final BlobStore blobStore;
+    private final MediaRepository mediaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${media.image.variant-widths:320,768,1600}")
+    private List<Integer> variantWidths;
+
+    @Value("${media.image.max-pixels:40000000}")
+    private long maxPixels;
+
+    public MediaVariantGenerator(BlobStore blobStore, MediaRepository mediaRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${media.image.threads:2}") int threads,
+                                 @Value("${media.image.queue-capacity:100}") int queueCapacity) {
+        this.blobStore = blobStore;
+        this.mediaRepository = mediaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // finish() also runs from the after-commit callback, where joining the finished transaction would never commit
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = BoundedExecutors.newFixed("media-variants", threads, queueCapacity);
+    }
+
+    @TransactionalEventListener
+    public void onMediaUploaded(MediaUploadedEvent event) {
+        try {
+            executor.execute(() -> generate(event.mediaId()));
+        } catch (RejectedExecutionException e) {
+            // The original is still served; only the smaller copies are missing
+            log.warn("Variant queue full, media id={} keeps only its original", event.mediaId());
+            finish(event.mediaId(), null, null, List.of(), MediaStatus.FAILED);
+        }
+    }
+
+    public void generate(Integer mediaId) {
+        MediaModel media = mediaRepository.findById(mediaId).orElse(null);
+        if (media == null) {
+            return;
+        }
+        List<String> written = new ArrayList<>();
+        try {
+            BufferedImage original = decode(media.getStorageKey());
+            if (original == null) {
+                finish(mediaId, null, null, List.of(), MediaStatus.READY);
+                return;
+            }
+            boolean jpeg = "image/jpeg".equals(media.getContentType());
+            boolean opaque = jpeg || !original.getColorModel().hasAlpha();
+            List<MediaVariant> variants = new ArrayList<>();
+            for (int width : variantWidths.stream().sorted().distinct().toList()) {
+                if (width >= original.getWidth()) {
+                    break;
+                }
+                int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+                byte[] bytes = encode(scale(original, width, height, opaque), jpeg ? "jpg" : "png");
+                String key = media.getStorageKey().replace("originals/", "variants/") + "-w" + width + (jpeg ? ".jpg" : ".png");
+                long size = blobStore.write(key, Channels.newChannel(new ByteArrayInputStream(bytes)), bytes.length);
+                written.add(key);
+                variants.add(new MediaVariant(width, height, jpeg ? "image/jpeg" : "image/png", key, size));
+            }
+            finish(mediaId, original.getWidth(), original.getHeight(), variants, MediaStatus.READY);
+            log.debug("Generated {} variants for media id={}", variants.size(), mediaId);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate variants for media id={}", mediaId, e);
+            written.forEach(this::deleteQuietly);
+            finish(mediaId, null, null, List.of(), MediaStatus.FAILED);
+        }
+    }
+
+    /** The decoded image, or {@code null} when it can't or shouldn't be decoded. */
+    private BufferedImage decode(String storageKey) throws IOException {
+        try (ReadableByteChannel channel = blobStore.read(storageKey);
+             ImageInputStream input = ImageIO.createImageInputStream(Channels.newInputStream(channel))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the header before allocating pixels, so a small file can't claim a huge raster
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    log.info("Media {} is larger than {} pixels, not resizing", storageKey, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, boolean opaque) {
+        BufferedImage target = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, out)) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        return out.toByteArray();
+    }
+
+    private void finish(Integer mediaId, Integer width, Integer height, List<MediaVariant> variants, MediaStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> mediaRepository.findById(mediaId).ifPresent(media -> {
+            media.setWidth(width);
+            media.setHeight(height);
+            media.getVariants().clear();
+            media.getVariants().addAll(variants);
+            media.setStatus(status);
+        }));
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}", key, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
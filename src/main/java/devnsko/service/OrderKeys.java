@@ -0,0 +1,86 @@
+package devnsko.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicographic ordering keys for blocks. Keys are strings over {@code 0-9a-z} compared
+ * byte-wise, and a key never ends in {@code 0}, so there is always room for another key
+ * between any two. Placing a block therefore writes that block's key only; no other row moves.
+ *
+ * <p>Repeated inserts at the same spot lengthen keys by about one character per five inserts;
+ * {@link BlockOrderRebalancer} rewrites posts whose keys have grown long.
+ */
+public final class OrderKeys {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private OrderKeys() {
+    }
+
+    /**
+     * A key strictly between {@code before} and {@code after}; {@code null} stands for the start
+     * or end of the post.
+     */
+    public static String between(String before, String after) {
+        String a = before == null ? "" : before;
+        if (after != null && a.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Order key " + before + " is not before " + after);
+        }
+        if (a.endsWith("0") || (after != null && after.endsWith("0"))) {
+            throw new IllegalArgumentException("Order keys must not end in 0");
+        }
+        return midpoint(a, after);
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Keep the common prefix (a padded with zeros) and split the remainder
+            int n = 0;
+            while (n < b.length() && (n < a.length() ? a.charAt(n) : '0') == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(n < a.length() ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b == null ? BASE : DIGITS.indexOf(b.charAt(0));
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        // Adjacent first digits: b's first digit alone sorts between if b has more after it,
+        // otherwise keep a's digit and go one level deeper
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    /**
+     * {@code count} ascending keys spread evenly over the key space, with gaps wide enough
+     * that later inserts usually keep the same key length.
+     */
+    public static List<String> spread(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space < (long) (count + 1) * BASE) {
+            width++;
+            space *= BASE;
+        }
+        List<String> keys = new ArrayList<>(count);
+        StringBuilder key = new StringBuilder(width);
+        for (int i = 0; i < count; i++) {
+            String digits = Long.toString((i + 1) * space / (count + 1), BASE);
+            key.setLength(0);
+            key.append("0".repeat(width - digits.length())).append(digits);
+            // Trailing zeros carry no order information and are not allowed
+            while (key.charAt(key.length() - 1) == '0') {
+                key.setLength(key.length() - 1);
+            }
+            keys.add(key.toString());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,79 @@
+package devnsko.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import devnsko.dto.PostBlockResponse;
+import devnsko.dto.PostExportRow;
+import devnsko.dto.PostResponse;
+import devnsko.repository.PostRepository;
+
+/**
+ * Writes every post as one JSON line ({@link PostResponse} shape) to an output stream. Rows are
+ * pulled from a forward-only database cursor, so memory use is bounded by the largest single
+ * post rather than by the table size.
+ */
+@Service
+public class PostExportService {
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter postWriter;
+
+    public PostExportService(PostRepository postRepository, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The output stream belongs to the servlet response; don't let Jackson close it per line
+        this.postWriter = objectMapper.writerFor(PostResponse.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public void exportNdjson(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PostExportRow> rows = postRepository.streamExportRows()) {
+                Iterator<PostExportRow> it = rows.iterator();
+                PostExportRow current = null;
+                List<PostBlockResponse> blocks = new ArrayList<>();
+                while (it.hasNext()) {
+                    PostExportRow row = it.next();
+                    if (current != null && !current.postId().equals(row.postId())) {
+                        writeLine(out, current, blocks);
+                        blocks = new ArrayList<>();
+                    }
+                    current = row;
+                    if (row.blockId() != null) {
+                        blocks.add(new PostBlockResponse(row.blockId(), row.type(), blocks.size(), row.data()));
+                    }
+                }
+                if (current != null) {
+                    writeLine(out, current, blocks);
+                }
+            }
+        });
+    }
+
+    private void writeLine(OutputStream out, PostExportRow post, List<PostBlockResponse> blocks) {
+        try {
+            postWriter.writeValue(out, new PostResponse(post.postId(), post.title(), post.version(), blocks));
+            out.write('\n');
+        } catch (IOException e) {
+            // Client went away; abort the cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+}
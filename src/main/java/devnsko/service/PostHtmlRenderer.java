@@ -0,0 +1,98 @@
+package devnsko.service;
+
+import java.util.regex.Pattern;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import devnsko.dto.block.BlockData;
+import devnsko.dto.block.CodeBlockData;
+import devnsko.dto.block.ImageBlockData;
+import devnsko.dto.block.QuoteBlockData;
+import devnsko.dto.block.TextBlockData;
+import devnsko.dto.block.VideoBlockData;
+import devnsko.model.PostBlockModel;
+import devnsko.model.PostModel;
+
+/**
+ * Compiles a post into one HTML fragment, block by block: TEXT is CommonMark, everything else
+ * maps to fixed markup. Output is safe to embed as-is: raw HTML in markdown is escaped, link and
+ * image URLs are sanitized, and all other text and attributes are HTML-escaped. CODE blocks get a
+ * {@code language-*} class for a client-side highlighter stylesheet.
+ */
+@Component
+public class PostHtmlRenderer {
+
+    private static final Pattern LANGUAGE = Pattern.compile("[A-Za-z0-9+#_-]{1,32}");
+    private static final Pattern SAFE_URL = Pattern.compile("(?i)(https?://|/(?!/)).*");
+
+    // Both are immutable and thread-safe, so one instance serves every render
+    private final Parser markdownParser = Parser.builder().build();
+    private final HtmlRenderer markdownRenderer = HtmlRenderer.builder()
+        .escapeHtml(true)
+        .sanitizeUrls(true)
+        .build();
+    private final BlockDataCodec blockDataCodec;
+
+    public PostHtmlRenderer(BlockDataCodec blockDataCodec) {
+        this.blockDataCodec = blockDataCodec;
+    }
+
+    public String render(PostModel post) {
+        StringBuilder html = new StringBuilder(1024 + post.getBlocks().size() * 256);
+        html.append("<article>\n<h1>").append(escape(post.getTitle())).append("</h1>\n");
+        for (PostBlockModel block : post.getBlocks()) {
+            BlockData data = blockDataCodec.read(block.getType(), block.getData());
+            appendBlock(html, data);
+        }
+        return html.append("</article>\n").toString();
+    }
+
+    // Java 17: no pattern matching for switch yet, so an instanceof chain over the sealed BlockData
+    private void appendBlock(StringBuilder html, BlockData data) {
+        if (data instanceof TextBlockData text) {
+            if (text.text() != null) {
+                html.append(markdownRenderer.render(markdownParser.parse(text.text())));
+            }
+        } else if (data instanceof CodeBlockData code) {
+            html.append("<pre><code");
+            if (code.language() != null && LANGUAGE.matcher(code.language()).matches()) {
+                html.append(" class=\"language-").append(escape(code.language())).append('"');
+            }
+            html.append('>').append(escape(code.code())).append("</code></pre>\n");
+        } else if (data instanceof QuoteBlockData quote) {
+            html.append("<blockquote><p>").append(escape(quote.text())).append("</p>");
+            if (quote.author() != null) {
+                html.append("<footer>").append(escape(quote.author())).append("</footer>");
+            }
+            html.append("</blockquote>\n");
+        } else if (data instanceof ImageBlockData image && isSafe(image.url())) {
+            html.append("<figure><img src=\"").append(escape(image.url()))
+                .append("\" alt=\"").append(escape(image.alt())).append("\" loading=\"lazy\">");
+            appendCaption(html, image.caption());
+            html.append("</figure>\n");
+        } else if (data instanceof VideoBlockData video && isSafe(video.url())) {
+            html.append("<figure><video src=\"").append(escape(video.url()))
+                .append("\" controls preload=\"metadata\"></video>");
+            appendCaption(html, video.caption());
+            html.append("</figure>\n");
+        }
+    }
+
+    private static void appendCaption(StringBuilder html, String caption) {
+        if (caption != null) {
+            html.append("<figcaption>").append(escape(caption)).append("</figcaption>");
+        }
+    }
+
+    /** Only http(s) and same-origin paths; {@code javascript:}, {@code data:} and the like are dropped. */
+    private static boolean isSafe(String url) {
+        return url != null && SAFE_URL.matcher(url).matches();
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : HtmlUtils.htmlEscape(text);
+    }
+}
@@ -0,0 +1,137 @@
+package devnsko.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import devnsko.config.CacheConfig;
+import devnsko.event.PostsChangedEvent;
+import devnsko.exception.CustomException;
+import devnsko.model.PostHtmlModel;
+import devnsko.model.PostModel;
+import devnsko.repository.PostHtmlRepository;
+import devnsko.repository.PostRepository;
+import devnsko.response.RenderedPost;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code post_html} current and serves it. Changed posts are rendered off the request
+ * thread once their transaction commits, and on startup every post whose HTML is missing or
+ * stale is rendered, so each edit is rendered once rather than on every view. A read that
+ * arrives before the background render has stored the new version renders it itself.
+ */
+@Slf4j
+@Service
+public class PostHtmlService {
+
+    private static final int BACKFILL_BATCH = 100;
+
+    private final PostRepository postRepository;
+    private final PostHtmlRepository postHtmlRepository;
+    private final PostHtmlRenderer renderer;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final BodyPrecompressor precompressor;
+
+    public PostHtmlService(PostRepository postRepository, PostHtmlRepository postHtmlRepository,
+                           PostHtmlRenderer renderer, PlatformTransactionManager transactionManager,
+                           CacheManager cacheManager, BodyPrecompressor precompressor) {
+        this.postRepository = postRepository;
+        this.postHtmlRepository = postHtmlRepository;
+        this.renderer = renderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.precompressor = precompressor;
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsChanged(PostsChangedEvent event) {
+        try {
+            render(event.postIds());
+        } catch (DataIntegrityViolationException e) {
+            // A reader rendered one of them first; that copy is just as current
+            log.debug("Concurrent render of posts {}: {}", event.postIds(), e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int rendered = IdBatches.forEach(BACKFILL_BATCH, postHtmlRepository::findStalePostIds, ids -> {
+            render(ids);
+            return ids.size();
+        });
+        log.info("HTML backfill rendered {} posts", rendered);
+    }
+
+    /** Renders the given posts and stores their HTML, unless what is stored is as new already. */
+    public void render(Collection<Integer> postIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, PostHtmlModel> stored = postHtmlRepository.findAllById(postIds).stream()
+                .collect(Collectors.toMap(PostHtmlModel::getPostId, Function.identity()));
+            List<PostHtmlModel> changed = new ArrayList<>();
+            for (PostModel post : postRepository.findWithBlocksByIdInOrderByIdAsc(postIds)) {
+                PostHtmlModel html = stored.computeIfAbsent(post.getId(), PostHtmlModel::new);
+                // Renders can finish out of order; never replace a newer version with an older one
+                if (!html.isNew() && html.getVersion() >= post.getVersion()) {
+                    continue;
+                }
+                html.setVersion(post.getVersion());
+                html.setHtml(renderer.render(post));
+                html.setRenderedAt(Instant.now());
+                changed.add(html);
+            }
+            postHtmlRepository.saveAll(changed);
+        });
+    }
+
+    /**
+     * The post's current HTML with its ETag, gzipped as well when large enough. Cached by id and
+     * version, so a new version is never answered with the previous one's HTML.
+     */
+    public RenderedPost getHtml(Integer id) {
+        Long version = postRepository.findVersionById(id)
+            .orElseThrow(() -> new CustomException("The post doesn't exist", HttpStatus.NOT_FOUND));
+        Cache cache = cacheManager.getCache(CacheConfig.POST_HTML);
+        RenderedPost cached = cache.get(new SimpleKey(id, version), RenderedPost.class);
+        if (cached != null) {
+            return cached;
+        }
+        PostHtmlModel html = postHtmlRepository.findById(id)
+            .filter(stored -> stored.getVersion() >= version)
+            .orElseGet(() -> renderNow(id));
+        byte[] body = html.getHtml().getBytes(StandardCharsets.UTF_8);
+        RenderedPost rendered = precompressor.precompress(body, "\"" + id + "-" + html.getVersion() + "-html\"");
+        cache.put(new SimpleKey(id, html.getVersion()), rendered);
+        return rendered;
+    }
+
+    private PostHtmlModel renderNow(Integer id) {
+        try {
+            render(List.of(id));
+        } catch (DataIntegrityViolationException e) {
+            // The background render inserted it meanwhile
+        }
+        return postHtmlRepository.findById(id)
+            .orElseThrow(() -> new CustomException("The post doesn't exist", HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,128 @@
+package devnsko.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import devnsko.config.CacheConfig;
+import devnsko.dto.ImportResult;
+import devnsko.dto.PostRequst;
+import devnsko.event.PostsChangedEvent;
+import devnsko.exception.CustomException;
+import devnsko.model.PostModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk import of posts from an NDJSON stream or a JSON array. Entries are read one at a time
+ * with Jackson's streaming parser and written in chunks, one transaction per chunk, so heap use
+ * depends on the chunk size rather than on the size of the upload.
+ */
+@Service
+public class PostImportService {
+
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader postReader;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${posts.import.chunk-size:500}")
+    private int chunkSize;
+
+    public PostImportService(PostService postService, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.postService = postService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postReader = objectMapper.readerFor(PostRequst.class);
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.POST_PAGES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.POST_SUMMARIES, allEntries = true)
+    })
+    public List<ImportResult> importPosts(InputStream body) throws IOException {
+        List<ImportResult> results = new ArrayList<>();
+        List<PostModel> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        // readValues iterates both root-level values (NDJSON) and the elements of a root array
+        try (MappingIterator<PostRequst> entries = postReader.readValues(body)) {
+            while (true) {
+                PostRequst entry;
+                try {
+                    if (!entries.hasNextValue()) {
+                        break;
+                    }
+                    entry = entries.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed JSON: the rest of the stream cannot be trusted
+                    results.add(ImportResult.failed(index, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    // Well-formed but unmappable entry; the iterator resyncs to the next value
+                    results.add(ImportResult.failed(index++, "Invalid post: " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                try {
+                    postService.linkMedia(entry);
+                    chunk.add(postService.toModel(entry));
+                    chunkIndexes.add(index);
+                } catch (CustomException | IllegalArgumentException e) {
+                    results.add(ImportResult.failed(index, e.getMessage()));
+                }
+                index++;
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, chunkIndexes, results);
+                }
+            }
+        }
+        writeChunk(chunk, chunkIndexes, results);
+        results.sort(Comparator.comparingInt(ImportResult::index));
+        return results;
+    }
+
+    private void writeChunk(List<PostModel> chunk, List<Integer> chunkIndexes, List<ImportResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(entityManager::persist);
+                entityManager.flush();
+                eventPublisher.publishEvent(new PostsChangedEvent(chunk.stream().map(PostModel::getId).toList()));
+                // Nothing from this chunk is read again; keep the persistence context empty
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(ImportResult.created(chunkIndexes.get(i), chunk.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            chunkIndexes.forEach(i -> results.add(ImportResult.failed(i, "Chunk rolled back: " + e.getMessage())));
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+}
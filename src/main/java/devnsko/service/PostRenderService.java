@@ -0,0 +1,79 @@
+package devnsko.service;
+
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import devnsko.config.CacheConfig;
+import devnsko.dto.PostResponse;
+import devnsko.exception.CustomException;
+import devnsko.repository.PostRepository;
+import devnsko.response.RenderedPost;
+import devnsko.response.ServerResponse;
+
+/**
+ * Serializes a post once per version and keeps the bytes, so repeat reads and
+ * {@code If-None-Match} revalidations skip both the database and Jackson. Bodies above
+ * {@code server.compression.min-response-size} are also gzipped once here, at the highest level,
+ * instead of by the server on every response. Bodies are cached by id and version, and the
+ * current version is read from the primary on each request, so an edit is visible on the next
+ * read and an older body can never be served under a newer version.
+ */
+@Service
+public class PostRenderService {
+
+    private final PostService postService;
+    private final PostRepository postRepository;
+    private final ObjectWriter responseWriter;
+    private final BodyPrecompressor precompressor;
+    private final CacheManager cacheManager;
+
+    public PostRenderService(PostService postService, PostRepository postRepository, ObjectMapper objectMapper,
+                             BodyPrecompressor precompressor, CacheManager cacheManager) {
+        this.postService = postService;
+        this.postRepository = postRepository;
+        this.responseWriter = objectMapper.writerFor(ServerResponse.class);
+        this.precompressor = precompressor;
+        this.cacheManager = cacheManager;
+    }
+
+    public RenderedPost render(Integer id) {
+        Long version = postRepository.findVersionById(id)
+            .orElseThrow(() -> new CustomException("The post doesn't exist", HttpStatus.NOT_FOUND));
+        Cache bodies = cacheManager.getCache(CacheConfig.POST_BODIES);
+        RenderedPost cached = bodies.get(new SimpleKey(id, version), RenderedPost.class);
+        if (cached != null) {
+            return cached;
+        }
+        PostResponse post = postService.getById(id);
+        RenderedPost rendered = serialize(post);
+        // Stored under the version actually rendered, which is older if a lagging replica answered
+        bodies.put(new SimpleKey(id, post.version()), rendered);
+        if (post.version() < version) {
+            // Drop that stale read so the next request fetches the post again
+            cacheManager.getCache(CacheConfig.POSTS).evict(id);
+        }
+        return rendered;
+    }
+
+    private RenderedPost serialize(PostResponse post) {
+        try {
+            byte[] body = responseWriter.writeValueAsBytes(ServerResponse.ok(Map.of("post", post)));
+            return precompressor.precompress(body, etag(post));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize post " + post.id(), e);
+        }
+    }
+
+    static String etag(PostResponse post) {
+        return "\"" + post.id() + "-" + post.version() + "\"";
+    }
+}
@@ -1,69 +1,214 @@
 package devnsko.service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import devnsko.config.CacheConfig;
+import devnsko.dto.CursorPage;
 import devnsko.dto.PostBlockRequest;
 import devnsko.dto.PostRequst;
+import devnsko.dto.PostResponse;
+import devnsko.dto.PostSummary;
+import devnsko.dto.SearchHit;
+import devnsko.dto.block.TextBlockData;
+import devnsko.event.PostsChangedEvent;
+import devnsko.exception.CustomException;
 import devnsko.model.PostBlockModel;
 import devnsko.model.PostModel;
 import devnsko.repository.PostRepository;
+import devnsko.repository.PostRepository.PostBlockStats;
+import devnsko.repository.PostRepository.PostTitleView;
+import devnsko.search.PostSearchEngine;
+import devnsko.type.PostBlockType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "blog.service", histogram = true) // tagged with class and method
 public class PostService {
 
     private final PostRepository postRepository;
-    
+    private final BlockDataCodec blockDataCodec;
+    private final PostSearchEngine postSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaService mediaService;
+
+    @Value("${posts.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${posts.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${posts.summary.excerpt-length:200}")
+    private int excerptLength;
+
+    // A new post only ever lands on the last page, but cursors are opaque so drop every page
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.POST_PAGES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.POST_SUMMARIES, allEntries = true)
+    })
+    @Transactional
     public Integer create(PostRequst post) {
+        linkMedia(post);
+        PostModel createdPost = postRepository.save(toModel(post));
+        if (createdPost != null) {
+            eventPublisher.publishEvent(PostsChangedEvent.of(createdPost.getId()));
+            log.debug("Created post id={} blocks={}", createdPost.getId(), createdPost.getBlocks().size());
+            return createdPost.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Sets the {@code url} of every block that references an upload ({@code mediaId}) to the
+     * upload's public URL, looking them all up in one query. Call before {@link #toModel}.
+     */
+    public void linkMedia(PostRequst post) {
+        List<PostBlockRequest> mediaBlocks = post.getBlocks() == null ? List.of() : post.getBlocks().stream()
+            .filter(block -> block.getData() != null && block.getData().mediaId() != null)
+            .toList();
+        if (mediaBlocks.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> urls = mediaService.publicUrls(
+            mediaBlocks.stream().map(block -> block.getData().mediaId()).toList());
+        mediaBlocks.forEach(block -> block.setData(block.getData().withMediaUrl(urls.get(block.getData().mediaId()))));
+    }
+
+    /**
+     * Maps a request to a new, unsaved post with its blocks. Shared by {@link #create} and
+     * {@link PostImportService}.
+     */
+    public PostModel toModel(PostRequst post) {
         // Map PostRequst to PostModel
         PostModel postModel = new PostModel();
         // Set fields from post to postModel as appropriate
         // Example:
         postModel.setTitle(post.getTitle());
-        List<PostBlockRequest> blocksRequest = post.getBlocks();
+        // Requests give positions as orderIndex; ties keep their order in the request
+        List<PostBlockRequest> blocksRequest = post.getBlocks() == null ? List.of() : post.getBlocks().stream()
+            .sorted(Comparator.comparingInt(PostBlockRequest::getOrderIndex))
+            .toList();
+        Iterator<String> orderKeys = OrderKeys.spread(blocksRequest.size()).iterator();
         List<PostBlockModel> blocks = new ArrayList<>();
         blocksRequest.forEach(blockRequest -> {
             PostBlockModel blockModel = new PostBlockModel();
             // Map fields from blockRequest to blockModel as needed
-            try {
-                blockModel.setData(
-                    new ObjectMapper().writeValueAsString(blockRequest.getData())
-                );
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize block data", e);
+            if (blockRequest.getType() == null || blockRequest.getData() == null) {
+                throw new CustomException("Every block needs a type and data", HttpStatus.BAD_REQUEST);
             }
+            blockModel.setData(blockDataCodec.write(blockRequest.getType(), blockRequest.getData()));
             blockModel.setType(blockRequest.getType());
-            blockModel.setOrderIndex(blockRequest.getOrderIndex());
+            blockModel.setOrderKey(orderKeys.next());
             blockModel.setPost(postModel);
             blocks.add(blockModel);
         });
 
         postModel.setBlocks(blocks);
+        return postModel;
+    }
 
-        PostModel createdPost = postRepository.save(postModel);
-        if (createdPost != null) {
-            System.out.println(createdPost);
-            return createdPost.getId();
-        } else {
-            return null;
+    @Cacheable(cacheNames = CacheConfig.POSTS)
+    @Transactional(readOnly = true)
+    public PostResponse getById(Integer id) {
+        return postRepository.findWithBlocksById(id)
+            .map(PostResponse::from)
+            .orElseThrow(() -> new CustomException("The post doesn't exist", HttpStatus.NOT_FOUND));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.POST_PAGES, key = "#cursor + ':' + #size")
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Read one extra id to learn whether another page exists without a count query
+        List<Integer> ids = postRepository.findIdsAfter(KeysetCursor.decode(cursor), Limit.of(pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Integer> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        // Second and last statement: the page's posts with all of their blocks
+        List<PostResponse> posts = postRepository.findWithBlocksByIdInOrderByIdAsc(pageIds).stream()
+            .map(PostResponse::from)
+            .toList();
+        String nextCursor = hasNext ? KeysetCursor.encode(pageIds.get(pageSize - 1)) : null;
+        return new CursorPage<>(posts, nextCursor);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.POST_SUMMARIES, key = "#cursor + ':' + #size")
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> getSummaryPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<PostTitleView> rows = postRepository.findByIdGreaterThanOrderByIdAsc(
+            KeysetCursor.decode(cursor), Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<PostTitleView> page = hasNext ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
         }
+        Map<Integer, PostBlockStats> stats = postRepository
+            .findBlockStats(page.stream().map(PostTitleView::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(PostBlockStats::getPostId, Function.identity()));
+
+        List<PostSummary> summaries = page.stream().map(row -> {
+            PostBlockStats blockStats = stats.get(row.getId());
+            return blockStats == null
+                ? new PostSummary(row.getId(), row.getTitle(), 0, null)
+                : new PostSummary(row.getId(), row.getTitle(), blockStats.getBlockCount(),
+                    excerpt(blockStats.getFirstTextData()));
+        }).toList();
+        String nextCursor = hasNext ? KeysetCursor.encode(page.get(pageSize - 1).getId()) : null;
+        return new CursorPage<>(summaries, nextCursor);
+    }
+
+    /**
+     * Full-text search over titles and TEXT/CODE/QUOTE blocks, best match first.
+     * {@code page} is zero-based.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchHit> search(String query, int page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new CustomException("Search query is required", HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = resolvePageSize(size);
+        return postSearchEngine.search(query, Math.max(0, page) * pageSize, pageSize);
     }
 
-    public PostModel getById(Integer id) {
-        PostModel post = postRepository.findById(id).orElse(null);
-        List<PostBlockModel> blocks = post.getBlocks();
-        System.out.println(blocks.get(0).getData());
-        return post;
+    private String excerpt(String textBlockData) {
+        if (textBlockData == null) {
+            return null;
+        }
+        String text = ((TextBlockData) blockDataCodec.read(PostBlockType.TEXT, textBlockData)).text();
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= excerptLength ? text : text.substring(0, excerptLength);
     }
 
-    public List<PostModel> getAll() {
-        return postRepository.findAll();
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(size, maxPageSize));
     }
 }
@@ -2,29 +2,39 @@ package devnsko.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import devnsko.config.CacheConfig;
 import devnsko.exception.CustomException;
 import devnsko.model.AppUser;
 import devnsko.repository.UserRepository;
 import devnsko.security.JwtTokenProvider;
+import devnsko.security.LoginRateLimiter;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "blog.service", histogram = true) // tagged with class and method
 public class UserService {
 
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final JwtTokenProvider jwtTokenProvider;
   private final AuthenticationManager authenticationManager;
+  private final LoginRateLimiter loginRateLimiter;
 
-  public String signin(String username, String password) {
+  public String signin(String username, String password, String clientIp) {
+    if (!loginRateLimiter.tryAcquire(clientIp, username)) {
+      throw new CustomException("Too many sign-in attempts, try again later", HttpStatus.TOO_MANY_REQUESTS);
+    }
     try {
       authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
       return jwtTokenProvider.createToken(username, userRepository.findByUsername(username).getAppUserRoles());
@@ -43,10 +53,12 @@ public class UserService {
     }
   }
 
+  @CacheEvict(cacheNames = CacheConfig.PRINCIPALS)
   public void delete(String username) {
     userRepository.deleteByUsername(username);
   }
 
+  @Transactional(readOnly = true)
   public AppUser search(String username) {
     AppUser appUser = userRepository.findByUsername(username);
     if (appUser == null) {
@@ -55,10 +67,12 @@ public class UserService {
     return appUser;
   }
 
+  @Transactional(readOnly = true)
   public AppUser whoami(HttpServletRequest req) {
-    return userRepository.findByUsername(jwtTokenProvider.getUsername(jwtTokenProvider.resolveToken(req)));
+    return userRepository.findByUsername(jwtTokenProvider.resolveClaims(req).getSubject());
   }
 
+  @Transactional(readOnly = true)
   public String refresh(String username) {
     return jwtTokenProvider.createToken(username, userRepository.findByUsername(username).getAppUserRoles());
   }
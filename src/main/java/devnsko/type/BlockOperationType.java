@@ -0,0 +1,13 @@
+package devnsko.type;
+
+/** Block-level edits accepted by {@code PATCH /posts/{id}}. */
+public enum BlockOperationType {
+    /** Adds a new block at {@code index}; later blocks move down by one. */
+    INSERT,
+    /** Replaces the type and data of {@code blockId} in place. */
+    REPLACE,
+    /** Moves {@code blockId} so that it ends up at {@code index}. */
+    MOVE,
+    /** Removes {@code blockId}. */
+    DELETE
+}
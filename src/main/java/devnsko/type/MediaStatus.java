@@ -0,0 +1,9 @@
+package devnsko.type;
+
+public enum MediaStatus {
+    /** Stored; resized variants are still being generated. The original can be served already. */
+    PROCESSING,
+    READY,
+    /** Variants could not be generated; only the original is served. */
+    FAILED
+}
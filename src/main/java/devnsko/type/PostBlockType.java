@@ -1,9 +1,26 @@
 package devnsko.type;
 
+import devnsko.dto.block.BlockData;
+import devnsko.dto.block.CodeBlockData;
+import devnsko.dto.block.ImageBlockData;
+import devnsko.dto.block.QuoteBlockData;
+import devnsko.dto.block.TextBlockData;
+import devnsko.dto.block.VideoBlockData;
+
 public enum PostBlockType {
-    TEXT,
-    IMAGE,
-    VIDEO,
-    CODE,
-    QUOTE
+    TEXT(TextBlockData.class),
+    IMAGE(ImageBlockData.class),
+    VIDEO(VideoBlockData.class),
+    CODE(CodeBlockData.class),
+    QUOTE(QuoteBlockData.class);
+
+    private final Class<? extends BlockData> dataType;
+
+    PostBlockType(Class<? extends BlockData> dataType) {
+        this.dataType = dataType;
+    }
+
+    public Class<? extends BlockData> getDataType() {
+        return dataType;
+    }
 }
@@ -0,0 +1,6 @@
+-- post_blocks.data was created as varchar(255) before it was mapped as JSON.
+-- ddl-auto=update does not change existing column types, so run this once per database.
+alter table post_blocks alter column data type jsonb using data::jsonb;
+
+-- Optional: lets containment queries (data @> '{"language": "java"}') use an index.
+create index if not exists post_blocks_data_gin on post_blocks using gin (data jsonb_path_ops);
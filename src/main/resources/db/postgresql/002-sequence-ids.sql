@@ -0,0 +1,14 @@
+-- posts and post_blocks ids moved from IDENTITY columns to pooled sequences (allocationSize = 50)
+-- so Hibernate can batch inserts. Run once per database before starting the new version; it is
+-- also safe after ddl-auto=update has already created the sequences starting at 1.
+create sequence if not exists posts_seq increment by 50;
+create sequence if not exists post_blocks_seq increment by 50;
+
+-- The pooled optimizer hands out (nextval - 49) .. nextval, so the current value must be at
+-- least the highest existing id.
+select setval('posts_seq', greatest((select coalesce(max(id), 0) from posts), 1));
+select setval('post_blocks_seq', greatest((select coalesce(max(id), 0) from post_blocks), 1));
+
+-- Ids are now always supplied by Hibernate.
+alter table posts alter column id drop identity if exists;
+alter table post_blocks alter column id drop identity if exists;
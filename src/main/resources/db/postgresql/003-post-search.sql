@@ -0,0 +1,12 @@
+-- Full-text search for search.engine=postgres. ddl-auto=update creates post_search(post_id, document);
+-- this adds the derived tsvector column and its GIN index. Existing posts are indexed by the
+-- application on its next start.
+create table if not exists post_search (
+    post_id integer primary key,
+    document text
+);
+
+alter table post_search add column if not exists search_vector tsvector
+    generated always as (to_tsvector('simple', coalesce(document, ''))) stored;
+
+create index if not exists post_search_vector_gin on post_search using gin (search_vector);
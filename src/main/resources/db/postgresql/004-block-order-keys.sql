@@ -0,0 +1,24 @@
+-- post_blocks.order_index (dense integers) is replaced by order_key, a gap-based string key, so
+-- inserting or moving a block writes that block only. Run once per database, ideally before
+-- starting the new version. If the application has started first, ddl-auto=update has added an
+-- empty order_key column; until this script runs, such posts are read in no particular block
+-- order and PATCH refuses them with 503, but their order_index values are left alone, so the
+-- backfill below still restores the original order.
+alter table post_blocks add column if not exists order_key varchar(64);
+
+-- Keys are compared byte-wise by the application; pin the collation so the database agrees.
+alter table post_blocks alter column order_key type varchar(64) collate "C";
+
+-- Order-preserving keys for existing rows: fixed-width position plus a trailing 1 (keys never
+-- end in 0). Ten characters is within posts.order-key.rebalance-length, so they stay as they are
+-- until inserts at one spot make them long enough for the rebalancer.
+update post_blocks b
+set order_key = k.order_key
+from (select id,
+             lpad(row_number() over (partition by post_id order by order_index, id)::text, 9, '0') || '1' as order_key
+      from post_blocks) k
+where b.id = k.id and b.order_key is null;
+
+create index if not exists post_blocks_post_order_key_idx on post_blocks (post_id, order_key);
+
+alter table post_blocks drop column if exists order_index;
@@ -0,0 +1,20 @@
+-- Media is served without authentication at /media/{public_key}, a random key, instead of at
+-- /media/{id}, whose sequential ids could be enumerated. Run once per database, before starting
+-- the new version (ddl-auto=update cannot add the not-null column to a table with rows).
+alter table media add column if not exists public_key varchar(36);
+
+update media set public_key = gen_random_uuid()::text where public_key is null;
+
+alter table media alter column public_key set not null;
+create unique index if not exists media_public_key_idx on media (public_key);
+
+-- Uploaded media in existing blocks still points at /media/{id}; point it at the new URL.
+-- Bumping the version of those posts refreshes their cached bodies, ETags and post_html.
+update posts set version = version + 1
+where id in (select b.post_id from post_blocks b
+             where b.type in ('IMAGE', 'VIDEO') and b.data ? 'mediaId');
+
+update post_blocks b
+set data = jsonb_set(b.data, '{url}', to_jsonb('/media/' || m.public_key))
+from media m
+where b.type in ('IMAGE', 'VIDEO') and (b.data ->> 'mediaId')::int = m.id;
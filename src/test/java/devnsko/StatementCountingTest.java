@@ -0,0 +1,60 @@
+package devnsko;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import devnsko.search.SearchIndexer;
+import devnsko.service.BlockOrderRebalancer;
+import devnsko.service.PostHtmlService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Base for tests that count the SQL the application issues, using Hibernate {@link Statistics}
+ * (enabled by {@code generate_statistics}). The counters are per session factory, so the
+ * components that query in the background (search indexing, HTML rendering, order-key
+ * rebalancing) are replaced by mocks; every counted statement then comes from the test thread.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class StatementCountingTest {
+
+    @MockitoBean
+    private SearchIndexer searchIndexer;
+
+    @MockitoBean
+    private PostHtmlService postHtmlService;
+
+    @MockitoBean
+    private BlockOrderRebalancer blockOrderRebalancer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    protected Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        clearCaches();
+        statistics.clear();
+    }
+
+    /** Cached service results would hide the statements being counted. */
+    protected void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    /** JDBC statements prepared since the last {@link Statistics#clear()}; a batch counts once. */
+    protected long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+}
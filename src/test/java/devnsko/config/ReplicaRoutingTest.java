@@ -0,0 +1,178 @@
+package devnsko.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import devnsko.dto.PostRequst;
+import devnsko.model.AppUser;
+import devnsko.model.AppUserRole;
+import devnsko.search.SearchIndexer;
+import devnsko.service.PostHtmlService;
+import devnsko.service.PostService;
+import devnsko.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The read/write split against two separate H2 databases. The replica is a copy of the primary
+ * taken by {@link #replicate()}, so a read that returns the copy's data came from the replica,
+ * and a write that only the primary has went to the primary. Indexing and HTML rendering are
+ * mocked, so every connection counted is taken by the test thread.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+    "datasource.replicas[0].jdbc-url=" + ReplicaRoutingTest.REPLICA_URL,
+    "datasource.replicas[0].username=sa",
+    "datasource.replicas[0].password=",
+    "datasource.replica-lag.query=select lag_seconds from replica_lag",
+    // Checked by the tests themselves
+    "datasource.replica-lag.check-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final String SNAPSHOT = "target/replica-snapshot.sql";
+
+    @MockitoBean
+    private SearchIndexer searchIndexer;
+
+    @MockitoBean
+    private PostHtmlService postHtmlService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void replicateAndCatchUp() throws SQLException {
+        replicate();
+        setLag(0);
+    }
+
+    @Test
+    void readOnlyPostReadsUseTheReplica() throws SQLException {
+        Integer id = postService.create(post());
+        replicate();
+        setLag(0);
+        execute(REPLICA_URL, "update posts set title = 'On the replica' where id = " + id);
+
+        double replicaBorrows = borrows("replica-1");
+        double primaryBorrows = borrows(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(postService.getById(id).title()).isEqualTo("On the replica");
+
+        assertThat(borrows("replica-1")).isEqualTo(replicaBorrows + 1);
+        assertThat(borrows(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primaryBorrows);
+    }
+
+    @Test
+    void readOnlyUserReadsUseTheReplica() throws SQLException {
+        execute(REPLICA_URL, "update app_user set email = 'replica@example.com' where username = 'client'");
+
+        double replicaBorrows = borrows("replica-1");
+        assertThat(userService.search("client").getEmail()).isEqualTo("replica@example.com");
+
+        assertThat(borrows("replica-1")).isEqualTo(replicaBorrows + 1);
+    }
+
+    @Test
+    void writesUseThePrimary() throws SQLException {
+        double replicaBorrows = borrows("replica-1");
+        double primaryBorrows = borrows(ReplicaRoutingDataSource.PRIMARY);
+
+        Integer id = postService.create(post());
+        AppUser user = new AppUser();
+        user.setUsername("routed-writer");
+        user.setEmail("routed-writer@example.com");
+        user.setPassword("routed-writer-password");
+        user.setAppUserRoles(List.of(AppUserRole.ROLE_CLIENT));
+        userService.signup(user);
+
+        assertThat(borrows(ReplicaRoutingDataSource.PRIMARY)).isGreaterThan(primaryBorrows);
+        assertThat(borrows("replica-1")).isEqualTo(replicaBorrows);
+        assertThat(count(PRIMARY_URL, "select count(*) from posts where id = " + id)).isEqualTo(1);
+        assertThat(count(REPLICA_URL, "select count(*) from posts where id = " + id)).isZero();
+        assertThat(count(REPLICA_URL, "select count(*) from app_user where username = 'routed-writer'")).isZero();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() throws SQLException {
+        Integer id = postService.create(post());
+        setLag(60);
+
+        double replicaBorrows = borrows("replica-1");
+        // The replica has not seen the post yet; the primary has
+        assertThat(postService.getById(id).id()).isEqualTo(id);
+        assertThat(userService.search("client").getUsername()).isEqualTo("client");
+
+        assertThat(borrows("replica-1")).isEqualTo(replicaBorrows);
+        assertThat(routedReads(ReplicaRoutingDataSource.PRIMARY)).isPositive();
+    }
+
+    /** Replaces the replica's contents with a copy of the primary, as replication would. */
+    private static void replicate() throws SQLException {
+        execute(PRIMARY_URL, "script to '" + SNAPSHOT + "'");
+        execute(REPLICA_URL, "drop all objects");
+        execute(REPLICA_URL, "runscript from '" + SNAPSHOT + "'");
+    }
+
+    /** Sets what the lag query returns and has the routing re-check the replica. */
+    private void setLag(int seconds) throws SQLException {
+        execute(REPLICA_URL, "create table if not exists replica_lag (lag_seconds int)");
+        execute(REPLICA_URL, "delete from replica_lag");
+        execute(REPLICA_URL, "insert into replica_lag values (" + seconds + ")");
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    /** Connections taken from the pool, as counted by HikariCP. */
+    private double borrows(String pool) {
+        return meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count();
+    }
+
+    private double routedReads(String target) {
+        return meterRegistry.get("datasource.routing.read-connections").tag("target", target).counter().count();
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static PostRequst post() {
+        return new PostRequst("Routed", new ArrayList<>());
+    }
+}
@@ -0,0 +1,122 @@
+package devnsko.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import devnsko.dto.MediaResponse;
+import devnsko.dto.PostBlockRequest;
+import devnsko.dto.PostRequst;
+import devnsko.dto.block.ImageBlockData;
+import devnsko.dto.block.VideoBlockData;
+import devnsko.exception.CustomException;
+import devnsko.model.MediaModel;
+import devnsko.service.MediaService;
+import devnsko.service.PostService;
+import devnsko.type.PostBlockType;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MediaControllerTest {
+
+    private static final byte[] VIDEO = "not really a video".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private PostService postService;
+
+    private MediaModel media;
+
+    @BeforeEach
+    void upload() {
+        // Videos get no variants, so nothing is generated in the background
+        media = mediaService.upload("video/mp4", VIDEO.length, new ByteArrayInputStream(VIDEO));
+    }
+
+    @Test
+    void servesMediaAnonymouslyByItsPublicKey() throws Exception {
+        MvcResult started = mockMvc.perform(get(MediaResponse.url(media.getPublicKey())))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(VIDEO));
+    }
+
+    @Test
+    void handsLocalFilesToTomcatSendfile() throws Exception {
+        MvcResult result = mockMvc.perform(get(MediaResponse.url(media.getPublicKey()))
+                .requestAttr("org.apache.tomcat.sendfile.support", true)
+                .header(HttpHeaders.RANGE, "bytes=4-9"))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isPartialContent())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 6))
+            .andExpect(content().bytes(new byte[0]))
+            .andReturn();
+
+        assertThat((String) result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"))
+            .endsWith(media.getStorageKey());
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(4L);
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+    }
+
+    @Test
+    void doesNotServeMediaBySequentialId() throws Exception {
+        mockMvc.perform(get("/media/" + media.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void keepsMediaInfoBehindAuthentication() throws Exception {
+        mockMvc.perform(get("/media/" + media.getId() + "/info"))
+            .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(401, 403));
+    }
+
+    @Test
+    void pointsMediaBlocksAtThePublicUrl() {
+        ArrayList<PostBlockRequest> blocks = new ArrayList<>(List.of(new PostBlockRequest(PostBlockType.VIDEO, 0,
+            new VideoBlockData("/media/" + media.getId(), "A clip", media.getId()))));
+
+        Integer id = postService.create(new PostRequst("With a video", blocks));
+
+        assertThat(postService.getById(id).blocks().get(0).data())
+            .contains("\"url\":\"" + MediaResponse.url(media.getPublicKey()) + "\"");
+    }
+
+    @Test
+    void rejectsBlocksReferencingUnknownMedia() {
+        ArrayList<PostBlockRequest> blocks = new ArrayList<>(List.of(new PostBlockRequest(PostBlockType.IMAGE, 0,
+            new ImageBlockData(null, "Missing", null, -1))));
+
+        assertThatThrownBy(() -> postService.create(new PostRequst("Broken image", blocks)))
+            .isInstanceOf(CustomException.class)
+            .hasMessageContaining("Media -1 doesn't exist");
+    }
+}
@@ -0,0 +1,56 @@
+package devnsko.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import devnsko.dto.block.CodeBlockData;
+import devnsko.dto.block.TextBlockData;
+import devnsko.type.PostBlockType;
+
+class BlockPayloadTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void blockRequestPicksThePayloadFromTheType() throws Exception {
+        PostBlockRequest request = mapper.readValue(
+            "{\"type\":\"CODE\",\"orderIndex\":0,\"data\":{\"language\":\"java\",\"code\":\"int x;\"}}",
+            PostBlockRequest.class);
+
+        assertThat(request.getType()).isEqualTo(PostBlockType.CODE);
+        assertThat(request.getData()).isEqualTo(new CodeBlockData("java", "int x;"));
+    }
+
+    @Test
+    void blockOperationPicksThePayloadFromTheType() throws Exception {
+        BlockOperation operation = mapper.readValue(
+            "{\"op\":\"INSERT\",\"index\":1,\"type\":\"TEXT\",\"data\":{\"text\":\"hello\"}}",
+            BlockOperation.class);
+
+        assertThat(operation.getType()).isEqualTo(PostBlockType.TEXT);
+        assertThat(operation.getData()).isEqualTo(new TextBlockData("hello"));
+    }
+
+    @Test
+    void writesTheTypeOnce() throws Exception {
+        PostBlockRequest request = PostBlockRequest.builder()
+            .type(PostBlockType.TEXT).data(new TextBlockData("hello")).build();
+
+        String json = mapper.writeValueAsString(request);
+
+        assertThat(mapper.readValue(json, PostBlockRequest.class).getData()).isEqualTo(new TextBlockData("hello"));
+        assertThat(json.split("\"type\"", -1)).hasSize(2);
+    }
+
+    @Test
+    void rejectsUnknownTypes() {
+        assertThatThrownBy(() -> mapper.readValue(
+            "{\"type\":\"AUDIO\",\"data\":{\"text\":\"hello\"}}", PostBlockRequest.class))
+            .isInstanceOf(MismatchedInputException.class);
+    }
+}
@@ -0,0 +1,21 @@
+package devnsko.dto.block;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class QuoteBlockDataTest {
+
+    @Test
+    void indexesTextAndAuthor() {
+        assertThat(new QuoteBlockData("Keep it simple.", "Anonymous").searchableText())
+            .isEqualTo("Keep it simple.\nAnonymous");
+    }
+
+    @Test
+    void leavesOutWhatIsMissing() {
+        assertThat(new QuoteBlockData("Keep it simple.", null).searchableText()).isEqualTo("Keep it simple.");
+        assertThat(new QuoteBlockData(null, "Anonymous").searchableText()).isEqualTo("Anonymous");
+        assertThat(new QuoteBlockData(null, null).searchableText()).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package devnsko.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import devnsko.dto.SearchHit;
+
+class InMemoryPostSearchEngineTest {
+
+    private InMemoryPostSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new InMemoryPostSearchEngine();
+        engine.index(List.of(
+            new SearchDocument(1, "Caching", "Caffeine caches posts. Caches are bounded."),
+            new SearchDocument(2, "Postgres", "Postgres search with tsvector; the GIN index caches nothing."),
+            new SearchDocument(3, "Caching again", "caches caches caches and more caches"),
+            new SearchDocument(4, "Unrelated", "Nothing to see here.")));
+    }
+
+    @Test
+    void ranksPostsWithMoreOccurrencesFirst() {
+        List<Integer> ids = ids(engine.search("caches", 0, 10));
+
+        assertThat(ids).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void requiresEveryTermOfTheQuery() {
+        assertThat(ids(engine.search("caches postgres", 0, 10))).containsExactly(2);
+        assertThat(ids(engine.search("caches missing", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void matchesCaseInsensitively() {
+        assertThat(ids(engine.search("POSTGRES", 0, 10))).containsExactly(2);
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        List<Integer> all = ids(engine.search("caches", 0, 10));
+
+        assertThat(ids(engine.search("caches", 0, 2))).isEqualTo(all.subList(0, 2));
+        assertThat(ids(engine.search("caches", 2, 2))).isEqualTo(all.subList(2, 3));
+        assertThat(engine.search("caches", 3, 2)).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesTheOldDocument() {
+        engine.index(List.of(new SearchDocument(4, "Unrelated", "Now it mentions postgres.")));
+
+        assertThat(ids(engine.search("postgres", 0, 10))).containsExactlyInAnyOrder(2, 4);
+        assertThat(ids(engine.search("nothing", 0, 10))).containsExactly(2);
+    }
+
+    @Test
+    void highlightsMatchesAndEscapesTheRest() {
+        engine.index(List.of(new SearchDocument(5, "Markup", "Use <script>alert(1)</script> & search safely")));
+
+        SearchHit hit = engine.search("search", 0, 10).stream()
+            .filter(h -> h.id() == 5)
+            .findFirst()
+            .orElseThrow();
+
+        assertThat(hit.highlight())
+            .contains("&lt;script&gt;alert(1)&lt;/script&gt; &amp; <mark>search</mark> safely")
+            .doesNotContain("<script>");
+    }
+
+    @Test
+    void reportsPostsMissingFromTheIndex() {
+        assertThat(engine.unindexed(List.of(1, 4, 9))).containsExactly(9);
+    }
+
+    private static List<Integer> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package devnsko.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LoginRateLimiterTest {
+
+  private LoginRateLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    limiter = new LoginRateLimiter();
+    ReflectionTestUtils.setField(limiter, "ipCapacity", 2);
+    ReflectionTestUtils.setField(limiter, "ipRefillPerMinute", 0);
+    ReflectionTestUtils.setField(limiter, "usernameCapacity", 3);
+    ReflectionTestUtils.setField(limiter, "usernameRefillPerMinute", 0);
+    ReflectionTestUtils.setField(limiter, "idleExpiry", Duration.ofMinutes(10));
+    limiter.init();
+  }
+
+  @Test
+  void refusesOnceTheIpBucketIsEmpty() {
+    assertThat(limiter.tryAcquire("10.0.0.1", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.1", "bob")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.1", "carol")).isFalse();
+  }
+
+  @Test
+  void refusesOnceTheUsernameBucketIsEmpty() {
+    assertThat(limiter.tryAcquire("10.0.0.1", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.2", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.3", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.4", "alice")).isFalse();
+  }
+
+  @Test
+  void throttledIpDoesNotDrainTheUsernameBucket() {
+    limiter.tryAcquire("10.0.0.66", "attacker");
+    limiter.tryAcquire("10.0.0.66", "attacker");
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire("10.0.0.66", "alice")).isFalse();
+    }
+
+    // alice still has her whole bucket for her own sign-ins
+    assertThat(limiter.tryAcquire("192.168.1.5", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("192.168.1.6", "alice")).isTrue();
+    assertThat(limiter.tryAcquire("192.168.1.7", "alice")).isTrue();
+  }
+}
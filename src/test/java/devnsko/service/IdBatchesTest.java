@@ -0,0 +1,45 @@
+package devnsko.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+class IdBatchesTest {
+
+    private final List<Integer> ids = IntStream.rangeClosed(1, 7).map(i -> i * 10).boxed().toList();
+
+    @Test
+    void walksEveryIdOnceInAscendingBatches() {
+        List<List<Integer>> batches = new ArrayList<>();
+
+        int handled = IdBatches.forEach(3, this::idsAfter, batch -> {
+            batches.add(batch);
+            return batch.size();
+        });
+
+        assertThat(batches).containsExactly(List.of(10, 20, 30), List.of(40, 50, 60), List.of(70));
+        assertThat(handled).isEqualTo(7);
+    }
+
+    @Test
+    void stopsOnAnEmptyBatch() {
+        List<Integer> afterIds = new ArrayList<>();
+
+        int handled = IdBatches.forEach(7, (afterId, limit) -> {
+            afterIds.add(afterId);
+            return idsAfter(afterId, limit);
+        }, batch -> 1);
+
+        assertThat(afterIds).containsExactly(0, 70);
+        assertThat(handled).isEqualTo(1);
+    }
+
+    private List<Integer> idsAfter(Integer afterId, Limit limit) {
+        return ids.stream().filter(id -> id > afterId).limit(limit.max()).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package devnsko.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OrderKeysTest {
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "a, b", "y, z", "1, 11", "11, 2", "1z, 2", "1zz, 2", "a1, a2", "a1, a11"})
+    void fitsBetweenAdjacentKeys(String before, String after) {
+        assertBetween(before, OrderKeys.between(before, after), after);
+    }
+
+    @Test
+    void startsAnEmptyPost() {
+        assertValid(OrderKeys.between(null, null));
+    }
+
+    @Test
+    void insertsAtTheHead() {
+        String key = OrderKeys.between(null, "1");
+        assertBetween(null, key, "1");
+        assertBetween(null, OrderKeys.between(null, key), key);
+    }
+
+    @Test
+    void insertsAtTheTail() {
+        String key = OrderKeys.between("z", null);
+        assertBetween("z", key, null);
+        assertBetween(key, OrderKeys.between(key, null), null);
+    }
+
+    @Test
+    void repeatedInsertsAtOneSpotStayOrderedAndGrowSlowly() {
+        List<String> keys = new ArrayList<>(OrderKeys.spread(2));
+        // Always right after the first block, pushing the previous insert down
+        for (int i = 0; i < 100; i++) {
+            keys.add(1, OrderKeys.between(keys.get(0), keys.get(1)));
+        }
+        assertAscending(keys);
+        // About one character per five inserts
+        assertThat(keys.get(1).length()).isLessThanOrEqualTo(1 + 100 / 5);
+    }
+
+    @Test
+    void repeatedHeadAndTailInsertsStayOrdered() {
+        List<String> keys = new ArrayList<>(List.of(OrderKeys.between(null, null)));
+        for (int i = 0; i < 100; i++) {
+            keys.add(0, OrderKeys.between(null, keys.get(0)));
+            keys.add(OrderKeys.between(keys.get(keys.size() - 1), null));
+        }
+        assertAscending(keys);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 35, 36, 1000})
+    void spreadsAscendingShortKeys(int count) {
+        List<String> keys = OrderKeys.spread(count);
+
+        assertThat(keys).hasSize(count);
+        assertAscending(keys);
+        assertThat(keys).allSatisfy(key -> assertThat(key.length()).isLessThanOrEqualTo(3));
+    }
+
+    @Test
+    void spreadLeavesRoomAroundEveryKey() {
+        List<String> keys = OrderKeys.spread(10);
+
+        assertBetween(null, OrderKeys.between(null, keys.get(0)), keys.get(0));
+        for (int i = 1; i < keys.size(); i++) {
+            String key = OrderKeys.between(keys.get(i - 1), keys.get(i));
+            assertBetween(keys.get(i - 1), key, keys.get(i));
+            assertThat(key).hasSize(1);
+        }
+    }
+
+    @Test
+    void rejectsKeysOutOfOrderOrEndingInZero() {
+        assertThatThrownBy(() -> OrderKeys.between("b", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderKeys.between("a", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderKeys.between("a0", "b")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertBetween(String before, String key, String after) {
+        assertValid(key);
+        if (before != null) {
+            assertThat(key).isGreaterThan(before);
+        }
+        if (after != null) {
+            assertThat(key).isLessThan(after);
+        }
+    }
+
+    private static void assertAscending(List<String> keys) {
+        keys.forEach(OrderKeysTest::assertValid);
+        for (int i = 1; i < keys.size(); i++) {
+            assertThat(keys.get(i)).isGreaterThan(keys.get(i - 1));
+        }
+    }
+
+    private static void assertValid(String key) {
+        assertThat(key).isNotEmpty().matches("[0-9a-z]*[1-9a-z]");
+    }
+}
@@ -0,0 +1,33 @@
+package devnsko.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import devnsko.StatementCountingTest;
+
+/**
+ * Pooled sequence ids keep JDBC batching available, so a post's blocks go out as one batched
+ * INSERT rather than one round trip each.
+ */
+class PostBatchInsertTest extends StatementCountingTest {
+
+    private static final int BLOCKS = 50;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    void postWithFiftyBlocksIsWrittenInAHandfulOfStatements() {
+        postService.create(PostQueryCountTest.post(1)); // warm up both sequence pools
+
+        statistics.clear();
+        Integer id = postService.create(PostQueryCountTest.post(BLOCKS));
+
+        assertThat(id).isNotNull();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BLOCKS + 1);
+        // One INSERT into posts, one batch into post_blocks, at most a sequence call per table
+        assertThat(statements()).isLessThanOrEqualTo(4);
+    }
+}
@@ -0,0 +1,65 @@
+package devnsko.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import devnsko.dto.PostPatchRequest;
+import devnsko.dto.PostResponse;
+
+/**
+ * A read that lands while a patch is still uncommitted sees the old post; the caches must not
+ * keep serving that once the patch commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostCacheTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostPatchService postPatchService;
+
+    @Autowired
+    private PostRenderService postRenderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readDuringAnUncommittedPatchIsNotCachedPastTheCommit() {
+        Integer id = postService.create(PostQueryCountTest.post(2));
+        String title = postService.getById(id).title();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            postPatchService.patch(id, new PostPatchRequest(0L, "Edited", null));
+            // Another connection still reads the committed row, and caches it
+            PostResponse during = CompletableFuture.supplyAsync(() -> postService.getById(id)).join();
+            assertThat(during.title()).isEqualTo(title);
+            String etag = CompletableFuture.supplyAsync(() -> postRenderService.render(id).etag()).join();
+            assertThat(etag).isEqualTo("\"" + id + "-0\"");
+        });
+
+        assertThat(postService.getById(id).title()).isEqualTo("Edited");
+        assertThat(postRenderService.render(id).etag()).isEqualTo("\"" + id + "-1\"");
+    }
+
+    @Test
+    void bodiesAreCachedPerVersion() {
+        Integer id = postService.create(PostQueryCountTest.post(2));
+        assertThat(postRenderService.render(id).etag()).isEqualTo("\"" + id + "-0\"");
+
+        postPatchService.patch(id, new PostPatchRequest(0L, "Edited", null));
+
+        assertThat(postRenderService.render(id).etag()).isEqualTo("\"" + id + "-1\"");
+        assertThat(postRenderService.render(id)).isSameAs(postRenderService.render(id));
+    }
+}
@@ -0,0 +1,89 @@
+package devnsko.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import devnsko.StatementCountingTest;
+import devnsko.dto.CursorPage;
+import devnsko.dto.PostBlockRequest;
+import devnsko.dto.PostRequst;
+import devnsko.dto.PostResponse;
+import devnsko.dto.PostSummary;
+import devnsko.dto.block.CodeBlockData;
+import devnsko.dto.block.TextBlockData;
+import devnsko.type.PostBlockType;
+
+/**
+ * Reads issue a fixed number of statements however many posts a page holds: no lazy
+ * {@code post_blocks} select per post.
+ */
+class PostQueryCountTest extends StatementCountingTest {
+
+    @Autowired
+    private PostService postService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void pageOfPostsIsTwoStatements(int posts) {
+        String cursor = createPosts(posts, 3);
+
+        statistics.clear();
+        CursorPage<PostResponse> page = postService.getPage(cursor, posts);
+
+        assertThat(page.items()).hasSize(posts)
+            .allSatisfy(post -> assertThat(post.blocks()).hasSize(3));
+        // Keyset query for the ids, then one fetch of those posts joined with their blocks
+        assertThat(statements()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void pageOfSummariesIsTwoStatements(int posts) {
+        String cursor = createPosts(posts, 3);
+
+        statistics.clear();
+        CursorPage<PostSummary> page = postService.getSummaryPage(cursor, posts);
+
+        assertThat(page.items()).hasSize(posts)
+            .allSatisfy(summary -> assertThat(summary.blockCount()).isEqualTo(3));
+        // Titles, then block counts and first TEXT blocks for the whole page
+        assertThat(statements()).isEqualTo(2);
+    }
+
+    @Test
+    void singlePostIsOneStatement() {
+        Integer id = postService.create(post(10));
+
+        statistics.clear();
+        PostResponse post = postService.getById(id);
+
+        assertThat(post.blocks()).hasSize(10);
+        assertThat(statements()).isEqualTo(1);
+    }
+
+    /** Creates {@code count} posts and returns the cursor of the page that starts with them. */
+    private String createPosts(int count, int blocks) {
+        Integer before = postService.create(post(blocks));
+        for (int i = 0; i < count; i++) {
+            postService.create(post(blocks));
+        }
+        clearCaches();
+        return KeysetCursor.encode(before);
+    }
+
+    static PostRequst post(int blocks) {
+        ArrayList<PostBlockRequest> requests = new ArrayList<>(blocks);
+        for (int i = 0; i < blocks; i++) {
+            requests.add(i % 2 == 0
+                ? new PostBlockRequest(PostBlockType.TEXT, i, new TextBlockData("Paragraph " + i))
+                : new PostBlockRequest(PostBlockType.CODE, i, new CodeBlockData("java", "int x = " + i + ";")));
+        }
+        return new PostRequst("Post with " + blocks + " blocks", requests);
+    }
+}